@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
+import { productImageSrc } from '../services/productApi';
 import './HomePage.css';
 
 export default function HomePage() {
@@ -49,7 +50,7 @@ export default function HomePage() {
         sellerEmail: product.user?.email || 'N/A',
         sellerPhone: product.user?.phone || 'N/A',
         rating: 0, // will be replaced by computed average below
-        image: product.productImage || 'https://via.placeholder.com/300x200?text=No+Image',
+        image: productImageSrc(product) || 'https://via.placeholder.com/300x200?text=No+Image',
         status: product.productStatus || 'Available',
         listedDate: product.productDate ? new Date(product.productDate).toLocaleDateString() : 'N/A'
       }));
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
-import { createProduct, getProductById, updateProduct } from '../services/productApi';
+import { createProduct, getProductById, updateProduct, productImageSrc } from '../services/productApi';
 import './ProductForm.css';
 
 export default function ProductForm() {
@@ -13,11 +13,13 @@ export default function ProductForm() {
     productDescription: '',
     productPrice: '',
     productImage: '',
+    productImageRef: '',
     productCategory: '',
     productStatus: 'Available'
   });
 
   const [imagePreview, setImagePreview] = useState(null);
+  const [removeImage, setRemoveImage] = useState(false);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
   const [currentUser, setCurrentUser] = useState(null);
@@ -41,14 +43,16 @@ export default function ProductForm() {
         productName: product.productName,
         productDescription: product.productDescription,
         productPrice: product.productPrice,
-        productImage: product.productImage,
+        // images not yet moved to the image store are still inline: send them back as they are
+        productImage: product.productImageRef ? '' : (product.productImage || ''),
+        productImageRef: product.productImageRef || '',
         productCategory: product.productCategory,
         productStatus: product.productStatus
       });
       
       // Set image preview if image exists
-      if (product.productImage) {
-        setImagePreview(product.productImage);
+      if (productImageSrc(product)) {
+        setImagePreview(productImageSrc(product));
       }
       
       setError('');
@@ -76,9 +80,9 @@ export default function ProductForm() {
       return;
     }
     
-    // Check file type
-    if (!file.type.startsWith('image/')) {
-      setError('Please upload an image file');
+    // Check file type (the server refuses SVG and other non-raster types)
+    if (!['image/png', 'image/jpeg', 'image/gif', 'image/webp', 'image/bmp'].includes(file.type)) {
+      setError('Please upload a PNG, JPEG, GIF, WebP or BMP image');
       return;
     }
     
@@ -88,6 +92,7 @@ export default function ProductForm() {
       const base64String = reader.result;
       setFormData(prev => ({ ...prev, productImage: base64String }));
       setImagePreview(base64String);
+      setRemoveImage(false);
       setError('');
     };
     reader.onerror = () => {
@@ -97,8 +102,9 @@ export default function ProductForm() {
   };
 
   const handleRemoveImage = () => {
-    setFormData(prev => ({ ...prev, productImage: '' }));
+    setFormData(prev => ({ ...prev, productImage: '', productImageRef: '' }));
     setImagePreview(null);
+    setRemoveImage(true);
     // Clear file input
     document.getElementById('productImage').value = '';
   };
@@ -136,7 +142,7 @@ export default function ProductForm() {
       };
 
       if (isEditMode) {
-        await updateProduct(id, productData);
+        await updateProduct(id, productData, removeImage);
         alert('Product updated successfully!');
       } else {
         await createProduct(productData);
@@ -261,7 +267,7 @@ export default function ProductForm() {
                   <input
                     type="file"
                     id="productImage"
-                    accept="image/*"
+                    accept="image/png,image/jpeg,image/gif,image/webp,image/bmp"
                     onChange={handleImageUpload}
                     className="file-input"
                   />
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { getProductsByUser, deleteProduct } from '../services/productApi';
+import { getProductsByUser, deleteProduct, productImageSrc } from '../services/productApi';
 import './ProductList.css';
 
 export default function ProductList() {
@@ -114,9 +114,9 @@ export default function ProductList() {
           ) : (
             products.map((product) => (
               <div key={product.productID} className="product-card">
-                {product.productImage && (
+                {productImageSrc(product) && (
                   <img 
-                    src={product.productImage} 
+                    src={productImageSrc(product)} 
                     alt={product.productName || 'Product'}
                     className="product-image"
                   />
@@ -1,4 +1,12 @@
-const API_BASE_URL = 'http://localhost:8080/products';
+const SERVER_URL = 'http://localhost:8080';
+const API_BASE_URL = `${SERVER_URL}/products`;
+
+// Image source for a product: stored images are served by the backend,
+// older products may still carry an inline base64 image
+export const productImageSrc = (product) => {
+  if (product?.productImageUrl) return `${SERVER_URL}${product.productImageUrl}`;
+  return product?.productImage || null;
+};
 
 async function handleResponse(response) {
   const text = await response.text();
@@ -44,8 +52,9 @@ export const getProductById = async (id) => {
 };
 
 // UPDATE - Update existing product
-export const updateProduct = async (id, productData) => {
-  const res = await fetch(`${API_BASE_URL}/updateProduct/${id}`, {
+// removeImage: drop the current image when no new one is sent (otherwise it is kept)
+export const updateProduct = async (id, productData, removeImage = false) => {
+  const res = await fetch(`${API_BASE_URL}/updateProduct/${id}${removeImage ? '?removeImage=true' : ''}`, {
     method: 'PUT',
     headers: { 'Content-Type': 'application/json' },
     body: JSON.stringify(productData),
@@ -69,4 +78,18 @@ export const getProductsByUser = async (userId) => {
     headers: { 'Content-Type': 'application/json' },
   });
   return handleResponse(res);
-};
\ No newline at end of file
+};
+
+// READ - Get one page of products (no images). Pass the previous page's
+// nextCursor as `after` to continue; nextCursor is null on the last page.
+export const getProductPage = async ({ after, size, category } = {}) => {
+  const params = new URLSearchParams();
+  if (after != null) params.append('after', after);
+  if (size != null) params.append('size', size);
+  if (category) params.append('category', category);
+  const res = await fetch(`${API_BASE_URL}/getProductPage?${params.toString()}`, {
+    method: 'GET',
+    headers: { 'Content-Type': 'application/json' },
+  });
+  return handleResponse(res);
+};
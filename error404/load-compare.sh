@@ -0,0 +1,25 @@
+#!/usr/bin/env sh
+# Runs the HTTP load test (ApiLoadTests) once per request execution mode and prints a
+# side-by-side summary. Extra arguments go to Maven, e.g. -Dboost.load.clients=64.
+# Virtual threads need a Java 21+ JDK; on older JDKs that run falls back to platform threads.
+set -e
+cd "$(dirname "$0")"
+mkdir -p target/load-compare
+
+run() {
+    name=$1; shift
+    echo "== $name"
+    sh ./mvnw -B -q -Pload-test test -Dboost.load.enforce=false "$@"
+    cp target/load-test-report.json "target/load-compare/$name.json"
+}
+
+run platform-ungated -Dspring.threads.virtual.enabled=false -Dboost.db.admission.enabled=false "$@"
+run platform-gated   -Dspring.threads.virtual.enabled=false -Dboost.db.admission.enabled=true "$@"
+run virtual-gated    -Dspring.threads.virtual.enabled=true  -Dboost.db.admission.enabled=true "$@"
+
+echo
+echo "mode                req/s    shed   errors  (p99 ms per endpoint in target/load-compare/*.json)"
+for f in target/load-compare/*.json; do
+    printf '%-18s %s\n' "$(basename "$f" .json)" \
+        "$(grep -E '"(totalThroughputPerSecond|shedRate|errorRate)"' "$f" | tr -d ' ,\n')"
+done
@@ -0,0 +1,82 @@
+package com.appdevg6.error404.boost.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.appdevg6.error404.boost.config.JwtAuthenticationFilter;
+import com.appdevg6.error404.boost.dto.TokenPrincipal;
+import com.appdevg6.error404.boost.service.JwtService;
+
+// Login against authenticated requests at several bcrypt work factors. login pays
+// for bcrypt; a request with a bearer token goes through JwtAuthenticationFilter and
+// userController.me and should cost the same whatever the work factor, with
+// (authenticatedRequest) or without (authenticatedRequestUncached) the verified-token cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class AuthenticatedRequestBenchmark {
+
+    @Param({"4", "10", "12"})
+    public int bcryptStrength;
+
+    private ConfigurableApplicationContext context;
+    private userController controller;
+    private JwtAuthenticationFilter filter;
+    private JwtService jwt;
+    private LoginRequest valid;
+    private final MockHttpServletRequest client = new MockHttpServletRequest();
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // one account logs in over and over, so the per-email/per-address attempt budgets are off
+        context = BenchmarkData.start("bench_auth_" + bcryptStrength, "boost.security.bcrypt-strength=" + bcryptStrength,
+                "boost.login.rate.enabled=false");
+        String hash = context.getBean(PasswordEncoder.class).encode("secret");
+        BenchmarkData.seedUsers(context.getBean(JdbcTemplate.class), 1000, 0, hash);
+        controller = context.getBean(userController.class);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        jwt = context.getBean(JwtService.class);
+        valid = new LoginRequest();
+        valid.setEmail("user500@boost.bench");
+        valid.setPassword("secret");
+        Map<String, Object> body = (Map<String, Object>) controller.login(valid, client).getBody();
+        accessToken = (String) body.get("accessToken");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object login() {
+        return controller.login(valid, client);
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+        Object[] result = new Object[1];
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                result[0] = controller.me((TokenPrincipal) req.getAttribute(JwtAuthenticationFilter.PRINCIPAL)));
+        return result[0];
+    }
+
+    @Benchmark
+    public Object authenticatedRequestUncached() {
+        return controller.me(jwt.verify(accessToken, JwtService.ACCESS));
+    }
+}
@@ -0,0 +1,94 @@
+package com.appdevg6.error404.boost.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appdevg6.error404.boost.Error404Application;
+
+// Boots the application against a fresh in-memory H2 database (MySQL mode) and seeds
+// it with plain JDBC batches, so benchmark setup does not go through the code under test.
+final class BenchmarkData {
+
+    static final String[] CATEGORIES = {"Electronics", "Books", "Clothing", "Home", "Toys", "Sports", "Beauty", "Garden"};
+    private static final String[] WORDS = {"red", "blue", "wireless", "classic", "lamp", "laptop", "mug", "shirt",
+            "novel", "kit", "pro", "mini", "vintage", "organic", "smart", "travel"};
+
+    private BenchmarkData() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return new SpringApplicationBuilder(Error404Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "boost.images.dir=target/jmh-product-images",
+                        "boost.recommendations.initial-delay-ms=3600000",
+                        "boost.sql.slow-query-threshold-ms=60000",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=ERROR")
+                .run();
+    }
+
+    // users 1..count, email user<i>@boost.bench; the first `sellers` are SELLERs
+    static void seedUsers(JdbcTemplate jdbc, int count, int sellers, String passwordHash) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[] {"user" + i, "user" + i + "@boost.bench", passwordHash, "First" + i, "Last" + i,
+                    i <= sellers ? "SELLER" : "BUYER"});
+            if (rows.size() == 5000 || i == count) {
+                jdbc.batchUpdate("insert into users (username, email, password, firstname, lastname, role) "
+                        + "values (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    // products 1..count spread over sellers 1..sellers; imageBytes > 0 stores a legacy inline
+    // base64 image of that size in product_image, as older rows still have
+    static void seedProducts(JdbcTemplate jdbc, int count, int sellers, int imageBytes) {
+        Random random = new Random(42);
+        String image = null;
+        if (imageBytes > 0) {
+            byte[] bytes = new byte[imageBytes];
+            random.nextBytes(bytes);
+            image = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(bytes);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            rows.add(new Object[] {name, "A " + name + " in good condition, ships in two days.",
+                    5 + random.nextInt(50_000) / 100.0, CATEGORIES[random.nextInt(CATEGORIES.length)], "Available",
+                    java.sql.Date.valueOf("2025-01-01"), image, 1 + random.nextInt(sellers)});
+            if (rows.size() == 1000 || i == count) {
+                jdbc.batchUpdate("insert into product (product_name, product_description, product_price, product_category, "
+                        + "product_status, product_date, product_image, user_ID) values (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    // `count` ratings from random users on random products (both ID ranges start at 1)
+    static void seedRecommendations(JdbcTemplate jdbc, int count, int users, int products) {
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[] {1 + random.nextInt(users), 1 + random.nextInt(products),
+                    "Review " + i + ": " + String.join(" ", Arrays.copyOf(WORDS, 6)), 1 + random.nextInt(5),
+                    java.sql.Date.valueOf("2025-02-01")});
+            if (rows.size() == 5000 || i == count) {
+                jdbc.batchUpdate("insert into recommendation (user_ID, product_ID, message, rating, date_generated) "
+                        + "values (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.appdevg6.error404.boost.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.appdevg6.error404.boost.service.ProductCatalogSnapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// getAllProducts and getProductsByUser including the Jackson write of the response body,
+// once with legacy inline images in the product rows and once without. getAllProducts
+// runs both per request and from the pre-serialized catalog snapshot.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductListingBenchmark {
+
+    private static final int SELLERS = 200;
+
+    @Param({"2000"})
+    public int products;
+
+    @Param({"0", "24576"})
+    public int imageBytes;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private ConfigurableApplicationContext context;
+    private productController controller;
+    private ObjectMapper mapper;
+    private int nextSeller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("bench_products_" + imageBytes + "_" + snapshot,
+                "boost.catalog.snapshot.enabled=" + snapshot);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedUsers(jdbc, SELLERS, SELLERS, null);
+        BenchmarkData.seedProducts(jdbc, products, SELLERS, imageBytes);
+        controller = context.getBean(productController.class);
+        mapper = context.getBean(ObjectMapper.class);
+        // rows were inserted behind the app's back, so build the snapshot from them explicitly
+        context.getBean(ProductCatalogSnapshot.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] getAllProducts() throws Exception {
+        return body(controller.getAllProducts(null, unconditional()).getBody());
+    }
+
+    @Benchmark
+    public byte[] getProductsByUser() throws Exception {
+        nextSeller = nextSeller % SELLERS + 1;
+        return mapper.writeValueAsBytes(controller.getProductsByUser(nextSeller, unconditional()).getBody());
+    }
+
+    // snapshot responses are already the bytes that go on the wire
+    private byte[] body(Object body) throws Exception {
+        return body instanceof byte[] bytes ? bytes : mapper.writeValueAsBytes(body);
+    }
+
+    // no If-None-Match, so every call queries and serializes
+    private static ServletWebRequest unconditional() {
+        return new ServletWebRequest(new MockHttpServletRequest());
+    }
+}
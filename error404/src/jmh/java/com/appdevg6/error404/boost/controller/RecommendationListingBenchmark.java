@@ -0,0 +1,63 @@
+package com.appdevg6.error404.boost.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Recommendation listings (all, per product, per user) including the Jackson write
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class RecommendationListingBenchmark {
+
+    private static final int USERS = 5000;
+    private static final int PRODUCTS = 2000;
+
+    @Param({"50000"})
+    public int recommendations;
+
+    private ConfigurableApplicationContext context;
+    private RecommendationController controller;
+    private ObjectMapper mapper;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start("bench_recommendations");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedUsers(jdbc, USERS, 200, null);
+        BenchmarkData.seedProducts(jdbc, PRODUCTS, 200, 0);
+        BenchmarkData.seedRecommendations(jdbc, recommendations, USERS, PRODUCTS);
+        controller = context.getBean(RecommendationController.class);
+        mapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] listAll() throws Exception {
+        return mapper.writeValueAsBytes(controller.getAll());
+    }
+
+    @Benchmark
+    public byte[] listByProduct() throws Exception {
+        next = next % PRODUCTS + 1;
+        return mapper.writeValueAsBytes(controller.getByProduct(next));
+    }
+
+    @Benchmark
+    public byte[] listByUser() throws Exception {
+        next = next % USERS + 1;
+        return mapper.writeValueAsBytes(controller.getByUser(next));
+    }
+}
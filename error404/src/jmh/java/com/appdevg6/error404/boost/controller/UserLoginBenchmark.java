@@ -0,0 +1,61 @@
+package com.appdevg6.error404.boost.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// POST /api/users/login through userController.login, with the production bcrypt cost
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class UserLoginBenchmark {
+
+    @Param({"20000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private userController controller;
+    private LoginRequest valid;
+    private final MockHttpServletRequest client = new MockHttpServletRequest();
+    private LoginRequest unknownEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // one account logs in over and over, so the per-email/per-address attempt budgets are off
+        context = BenchmarkData.start("bench_login", "boost.login.rate.enabled=false");
+        String hash = context.getBean(PasswordEncoder.class).encode("secret");
+        BenchmarkData.seedUsers(context.getBean(JdbcTemplate.class), users, 0, hash);
+        controller = context.getBean(userController.class);
+        valid = request("user" + users / 2 + "@boost.bench", "secret");
+        unknownEmail = request("nobody@boost.bench", "secret");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object login() {
+        return controller.login(valid, client);
+    }
+
+    @Benchmark
+    public Object loginUnknownEmail() {
+        return controller.login(unknownEmail, client);
+    }
+
+    private static LoginRequest request(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package com.appdevg6.error404.boost.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Runs every password check (matches, i.e. login) of the wrapped encoder on a small
+// pool of its own, so logins can keep at most that many cores busy with bcrypt however
+// many arrive at once. Callers wait for their result; when the pool and its bounded
+// queue are full the check is refused at once with LoginAdmissionRejectedException
+// (429) instead of queueing up CPU work behind it. encode (registration, password
+// changes) runs on the caller's thread and is never refused.
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final int retryAfterSeconds;
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, int retryAfterSeconds,
+                                  MeterRegistry registry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hashing-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("boost.login.rejected").tag("reason", "hashing-busy")
+                .description("Logins turned away with 429")
+                .register(registry);
+        this.queueWait = Timer.builder("boost.login.hashing.wait")
+                .description("Time a password check waited for a hashing thread")
+                .register(registry);
+        Gauge.builder("boost.login.hashing.queued", pool, p -> p.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("boost.login.hashing.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(registry);
+    }
+
+    // hashing threads for a share of the machine's cores, at least one
+    public static int threadsFor(double cpuShare) {
+        return Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * cpuShare));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> hash) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = pool.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return hash.call();
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new LoginAdmissionRejectedException("Password checks are busy", retryAfterSeconds);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password check", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,68 @@
+package com.appdevg6.error404.boost.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.appdevg6.error404.boost.dto.TokenPrincipal;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Read-through caches for single-row lookups. Each cache is sized and expired by its
+// own Caffeine spec (boost.cache.*.spec) and records hit/miss/eviction statistics.
+// TOKENS holds verified access tokens (see JwtService); entries expire with the token.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String USERS = "users";
+    public static final String TOKENS = "tokens";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${boost.cache.products.spec:maximumSize=10000,expireAfterWrite=10m}") String productSpec,
+                                     @Value("${boost.cache.users.spec:maximumSize=10000,expireAfterWrite=10m}") String userSpec,
+                                     @Value("${boost.cache.tokens.max-size:10000}") long tokenCacheSize) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setAllowNullValues(false);
+        manager.registerCustomCache(PRODUCTS, Caffeine.from(productSpec).recordStats().build());
+        manager.registerCustomCache(USERS, Caffeine.from(userSpec).recordStats().build());
+        manager.registerCustomCache(TOKENS, Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build());
+        // only the caches above exist; an unknown cache name is a programming error
+        manager.setCacheNames(List.of());
+        return manager;
+    }
+
+    // a cached token principal lives exactly until its token expires
+    static class TokenExpiry implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (value instanceof TokenPrincipal principal) {
+                return Math.max(0, Duration.between(Instant.now(), principal.getExpiresAt()).toNanos());
+            }
+            return 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.appdevg6.error404.boost.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+// Puts DbAdmissionGate in front of the DataSource (see DbAdmissionDataSource) and reports which
+// request execution mode is in effect (spring.threads.virtual.enabled needs Java 21+).
+@Configuration
+public class DbAdmissionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DbAdmissionConfig.class);
+
+    @Bean
+    public static BeanPostProcessor dbAdmissionDataSource(ObjectProvider<DbAdmissionGate> gate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DbAdmissionDataSource)) {
+                    return new DbAdmissionDataSource(dataSource, gate.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode(ApplicationReadyEvent event) {
+        boolean requested = event.getApplicationContext().getEnvironment()
+                .getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "requests run on the platform thread pool", Runtime.version().feature());
+        } else {
+            log.info("Request handling on {} threads", requested ? "virtual" : "platform");
+        }
+    }
+}
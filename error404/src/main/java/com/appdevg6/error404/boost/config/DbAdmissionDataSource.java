@@ -0,0 +1,77 @@
+package com.appdevg6.error404.boost.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Puts DbAdmissionGate in front of the connection pool: a slot is taken before a
+// connection is borrowed and given back when that connection is closed (JPA, JdbcTemplate
+// and transactions alike), so at most max-concurrent connections are ever out.
+public class DbAdmissionDataSource extends DelegatingDataSource {
+
+    private final DbAdmissionGate gate;
+
+    public DbAdmissionDataSource(DataSource target, DbAdmissionGate gate) {
+        super(target);
+        this.gate = gate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DbAdmissionGate.Slot slot = admit();
+        try {
+            return wrap(super.getConnection(), slot);
+        } catch (SQLException | RuntimeException ex) {
+            gate.release(slot);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DbAdmissionGate.Slot slot = admit();
+        try {
+            return wrap(super.getConnection(username, password), slot);
+        } catch (SQLException | RuntimeException ex) {
+            gate.release(slot);
+            throw ex;
+        }
+    }
+
+    private DbAdmissionGate.Slot admit() throws SQLException {
+        try {
+            return gate.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a DB admission slot", ex);
+        }
+    }
+
+    private Connection wrap(Connection connection, DbAdmissionGate.Slot slot) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                gate.release(slot);
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
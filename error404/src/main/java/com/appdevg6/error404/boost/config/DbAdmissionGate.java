@@ -0,0 +1,80 @@
+package com.appdevg6.error404.boost.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Caps how many JDBC connections are checked out at once (boost.db.admission.max-concurrent,
+// normally the JDBC pool size). DbAdmissionDataSource takes a slot in getConnection and
+// gives it back when the connection is closed, so the slot is held exactly as long as the
+// connection is. A web request that cannot get a slot within boost.db.admission.wait-ms is
+// rejected with DbAdmissionRejectedException (503 + Retry-After) instead of queueing on the
+// pool; background jobs wait up to boost.db.admission.background-wait-ms, then fail the same way.
+// A thread that already holds a slot opens further connections without taking another.
+@Component
+public class DbAdmissionGate {
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long waitMillis;
+    private final long backgroundWaitMillis;
+    private final int retryAfterSeconds;
+    private final Semaphore permits;
+    private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+    private final Counter rejected;
+
+    public DbAdmissionGate(@Value("${boost.db.admission.enabled:true}") boolean enabled,
+                           @Value("${boost.db.admission.max-concurrent:10}") int maxConcurrent,
+                           @Value("${boost.db.admission.wait-ms:250}") long waitMillis,
+                           @Value("${boost.db.admission.background-wait-ms:30000}") long backgroundWaitMillis,
+                           @Value("${boost.db.admission.retry-after-seconds:1}") int retryAfterSeconds,
+                           MeterRegistry registry) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.waitMillis = waitMillis;
+        this.backgroundWaitMillis = backgroundWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejected = Counter.builder("boost.db.admission.rejected")
+                .description("Requests shed because no DB slot freed up in time")
+                .register(registry);
+        Gauge.builder("boost.db.admission.active", this, gate -> gate.maxConcurrent - gate.permits.availablePermits())
+                .description("Connections currently checked out through the gate")
+                .register(registry);
+    }
+
+    // Takes a slot for a connection about to be opened. Returns the handle to pass to
+    // release() once that connection is closed.
+    public Slot acquire() throws InterruptedException {
+        int[] count = held.get();
+        if (!enabled || count[0] > 0) {
+            count[0]++;
+            return new Slot(count, false);
+        }
+        boolean web = RequestContextHolder.getRequestAttributes() != null;
+        if (!permits.tryAcquire(web ? waitMillis : backgroundWaitMillis, TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            throw new DbAdmissionRejectedException(retryAfterSeconds);
+        }
+        count[0]++;
+        return new Slot(count, true);
+    }
+
+    public void release(Slot slot) {
+        slot.count[0]--;
+        if (slot.permit) {
+            permits.release();
+        }
+    }
+
+    // one per connection: the opening thread's count, and whether a permit was taken
+    public record Slot(int[] count, boolean permit) {
+    }
+}
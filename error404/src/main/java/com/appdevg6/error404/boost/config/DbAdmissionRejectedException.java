@@ -0,0 +1,16 @@
+package com.appdevg6.error404.boost.config;
+
+// Thrown by DbAdmissionGate when a request is shed; mapped to 503 + Retry-After
+public class DbAdmissionRejectedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public DbAdmissionRejectedException(int retryAfterSeconds) {
+        super("Database is busy, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
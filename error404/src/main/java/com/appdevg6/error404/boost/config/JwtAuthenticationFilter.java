@@ -0,0 +1,54 @@
+package com.appdevg6.error404.boost.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.appdevg6.error404.boost.service.JwtService;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Stateless authentication: a request carrying "Authorization: Bearer <access token>"
+// gets the token's TokenPrincipal as the PRINCIPAL request attribute; a bad or
+// expired token is answered with 401 right here. Requests without a token pass
+// through unchanged, endpoints that need a user check for the attribute.
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL = "boost.principal";
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwt;
+
+    public JwtAuthenticationFilter(JwtService jwt) {
+        this.jwt = jwt;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            request.setAttribute(PRINCIPAL, jwt.authenticate(header.substring(BEARER.length()).trim()));
+        } catch (JwtException | IllegalArgumentException ex) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"error\":\"Invalid or expired token\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,110 @@
+package com.appdevg6.error404.boost.config;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Token buckets for login attempts, one budget per email and one per client address
+// (burst, then per-minute refill). A login over either budget gets
+// LoginAdmissionRejectedException (429 + Retry-After) before any password is hashed.
+// Each exact (normalized) email and address has its own bucket, kept in a Caffeine
+// cache bounded by boost.login.rate.max-tracked, so memory stays bounded however many
+// emails or addresses a credential-stuffing run cycles through. A bucket is dropped
+// once it has been idle long enough to be full again, which loses nothing.
+@Component
+public class LoginAdmissionGate {
+
+    private final boolean enabled;
+    private final Budgets byEmail;
+    private final Budgets byAddress;
+    private final Counter emailRejected;
+    private final Counter addressRejected;
+
+    public LoginAdmissionGate(@Value("${boost.login.rate.enabled:true}") boolean enabled,
+                              @Value("${boost.login.rate.max-tracked:100000}") long maxTracked,
+                              @Value("${boost.login.rate.email.burst:5}") int emailBurst,
+                              @Value("${boost.login.rate.email.per-minute:10}") double emailPerMinute,
+                              @Value("${boost.login.rate.ip.burst:20}") int addressBurst,
+                              @Value("${boost.login.rate.ip.per-minute:60}") double addressPerMinute,
+                              MeterRegistry registry) {
+        this.enabled = enabled;
+        this.byEmail = new Budgets(maxTracked, emailBurst, emailPerMinute);
+        this.byAddress = new Budgets(maxTracked, addressBurst, addressPerMinute);
+        this.emailRejected = Counter.builder("boost.login.rejected").tag("reason", "email-rate")
+                .description("Logins turned away with 429")
+                .register(registry);
+        this.addressRejected = Counter.builder("boost.login.rejected").tag("reason", "ip-rate")
+                .description("Logins turned away with 429")
+                .register(registry);
+    }
+
+    // takes one attempt from the address's budget, then from the email's
+    public void admit(String email, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long wait = byAddress.take(clientAddress == null ? "" : clientAddress, now);
+        if (wait > 0) {
+            addressRejected.increment();
+            throw new LoginAdmissionRejectedException("Too many login attempts from this address", seconds(wait));
+        }
+        wait = byEmail.take(email.trim().toLowerCase(Locale.ROOT), now);
+        if (wait > 0) {
+            emailRejected.increment();
+            throw new LoginAdmissionRejectedException("Too many login attempts for this account", seconds(wait));
+        }
+    }
+
+    // Retry-After, rounded up to whole seconds
+    private static int seconds(long nanos) {
+        return (int) Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private static final class Budgets {
+
+        private final Cache<String, Bucket> buckets;
+        private final double burst;
+        private final double nanosPerToken;
+
+        Budgets(long maxTracked, int burst, double perMinute) {
+            this.burst = burst;
+            this.nanosPerToken = 60_000_000_000d / perMinute;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxTracked)
+                    .expireAfterAccess(Duration.ofNanos((long) Math.ceil(burst * nanosPerToken)))
+                    .build();
+        }
+
+        // 0 if a token was taken, otherwise nanoseconds until the next one
+        long take(String key, long now) {
+            return buckets.get(key, k -> new Bucket()).take(now, burst, nanosPerToken);
+        }
+    }
+
+    private static final class Bucket {
+
+        private boolean used;
+        private double tokens;
+        private long refilledAt;
+
+        synchronized long take(long now, double burst, double nanosPerToken) {
+            tokens = used ? Math.min(burst, tokens + (now - refilledAt) / nanosPerToken) : burst;
+            used = true;
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+}
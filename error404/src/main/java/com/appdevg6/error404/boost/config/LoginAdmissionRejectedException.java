@@ -0,0 +1,17 @@
+package com.appdevg6.error404.boost.config;
+
+// Thrown by LoginAdmissionGate and BoundedPasswordEncoder when a login is turned away;
+// mapped to 429 + Retry-After
+public class LoginAdmissionRejectedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public LoginAdmissionRejectedException(String reason, int retryAfterSeconds) {
+        super(reason + ", retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package com.appdevg6.error404.boost.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Application metrics on top of Actuator: the slow-query log. Request latency
+// (http.server.requests, per uri/method/status), pool (hikaricp.*) and Hibernate
+// (hibernate.*) meters come from Spring Boot's own instrumentation.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryLogging(ObjectProvider<MeterRegistry> registry,
+                                                     @Value("${boost.sql.slow-query-threshold-ms:200}") long thresholdMs,
+                                                     @Value("${boost.sql.slow-query-log-sample-rate:1.0}") double sampleRate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryLoggingDataSource)) {
+                    return new SlowQueryLoggingDataSource(dataSource, thresholdMs, sampleRate, registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
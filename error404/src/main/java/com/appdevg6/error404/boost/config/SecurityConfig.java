@@ -1,15 +1,25 @@
 package com.appdevg6.error404.boost.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class SecurityConfig {
 
+    // bcrypt work factor (log2 rounds) for new hashes; existing hashes keep their own.
+    // Login password checks run on their own pool sized to boost.login.hashing.cpu-share of the cores.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${boost.security.bcrypt-strength:10}") int strength,
+                                           @Value("${boost.login.hashing.cpu-share:0.5}") double cpuShare,
+                                           @Value("${boost.login.hashing.queue-capacity:32}") int queueCapacity,
+                                           @Value("${boost.login.retry-after-seconds:1}") int retryAfterSeconds,
+                                           MeterRegistry registry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), BoundedPasswordEncoder.threadsFor(cpuShare),
+                queueCapacity, retryAfterSeconds, registry);
     }
-}
\ No newline at end of file
+}
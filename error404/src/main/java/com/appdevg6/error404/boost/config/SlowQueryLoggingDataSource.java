@@ -0,0 +1,120 @@
+package com.appdevg6.error404.boost.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Times every JDBC execute (JPA and JdbcTemplate alike). Statements slower than the
+// threshold are counted in boost.sql.slow and a sample of them is logged to the
+// "boost.sql.slow" logger as one key=value line. Replaces show-sql, which printed
+// every statement.
+public class SlowQueryLoggingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger("boost.sql.slow");
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final Counter slowQueries;
+
+    public SlowQueryLoggingDataSource(DataSource target, long thresholdMillis, double sampleRate, MeterRegistry registry) {
+        super(target);
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.sampleRate = sampleRate;
+        this.slowQueries = Counter.builder("boost.sql.slow")
+                .description("JDBC statements slower than boost.sql.slow-query-threshold-ms")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return wrap(statement, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        InvocationHandler handler = new InvocationHandler() {
+            private int batched;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("addBatch")) {
+                    batched++;
+                }
+                if (!name.startsWith("execute")) {
+                    return SlowQueryLoggingDataSource.invoke(statement, method, args);
+                }
+                long start = System.nanoTime();
+                try {
+                    return SlowQueryLoggingDataSource.invoke(statement, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed >= thresholdNanos) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                        slow(elapsed, sql, name.equals("executeBatch") ? batched : 0);
+                    }
+                    if (name.equals("executeBatch")) {
+                        batched = 0;
+                    }
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private void slow(long elapsedNanos, String sql, int batchSize) {
+        slowQueries.increment();
+        if (!log.isWarnEnabled() || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        String text = sql == null ? "" : sql.replaceAll("\\s+", " ").trim();
+        if (text.length() > MAX_SQL_LENGTH) {
+            text = text.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        log.warn("slow_query duration_ms={} batch={} thread={} sql=\"{}\"",
+                elapsedNanos / 1_000_000, batchSize, Thread.currentThread().getName(), text.replace("\"", "\\\""));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.appdevg6.error404.boost.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// With spring.main.lazy-initialization=true (the fast-start profile) everything else
+// is created on first use, but the schema is still migrated and validated while the
+// application starts: a bad schema fails the start instead of the first request, and
+// no request pays for the Hibernate bootstrap. @Scheduled beans stay eager through
+// Spring Boot's own exclude filter.
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerSchemaBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(Flyway.class, FlywayMigrationInitializer.class,
+                EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,21 @@
+package com.appdevg6.error404.boost.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Optimistic locking: a write based on an outdated version gets 409 instead of
+// overwriting the newer state; the client re-reads and retries
+@RestControllerAdvice
+public class ConflictExceptionHandler {
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> conflict(ObjectOptimisticLockingFailureException ex) {
+        String entity = ex.getPersistentClassName();
+        entity = entity == null ? "Entity" : entity.substring(entity.lastIndexOf('.') + 1);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(entity + " " + ex.getIdentifier() + " was changed by someone else, reload it and try again");
+    }
+}
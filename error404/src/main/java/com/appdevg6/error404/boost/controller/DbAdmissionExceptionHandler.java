@@ -0,0 +1,21 @@
+package com.appdevg6.error404.boost.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.appdevg6.error404.boost.config.DbAdmissionRejectedException;
+
+// Load shedding: a request that could not get a DB slot gets 503 with Retry-After
+@RestControllerAdvice
+public class DbAdmissionExceptionHandler {
+
+    @ExceptionHandler(DbAdmissionRejectedException.class)
+    public ResponseEntity<String> shed(DbAdmissionRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+}
@@ -0,0 +1,17 @@
+package com.appdevg6.error404.boost.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.appdevg6.error404.boost.service.InvalidImageException;
+
+// Uploads: a product image that is not a decodable base64 data URL gets 400, not 500
+@RestControllerAdvice
+public class InvalidImageExceptionHandler {
+
+    @ExceptionHandler(InvalidImageException.class)
+    public ResponseEntity<String> invalidImage(InvalidImageException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+}
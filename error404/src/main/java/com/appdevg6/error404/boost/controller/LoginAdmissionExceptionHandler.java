@@ -0,0 +1,23 @@
+package com.appdevg6.error404.boost.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.appdevg6.error404.boost.config.LoginAdmissionRejectedException;
+
+// Login admission: over the attempt budget or no free hashing capacity gets 429 with Retry-After
+@RestControllerAdvice
+public class LoginAdmissionExceptionHandler {
+
+    @ExceptionHandler(LoginAdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> tooManyLogins(LoginAdmissionRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(ex.getRetryAfterSeconds()))
+                .body(Map.of("success", false, "error", ex.getMessage()));
+    }
+}
@@ -9,9 +9,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.appdevg6.error404.boost.dto.ProductRating;
+import com.appdevg6.error404.boost.dto.RecommendationView;
+import com.appdevg6.error404.boost.dto.ScoredProduct;
+import com.appdevg6.error404.boost.entity.productRatingEntity;
 import com.appdevg6.error404.boost.entity.recommendationEntity;
 import com.appdevg6.error404.boost.entity.userEntity;
 import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.service.ItemSimilarityEngine;
 import com.appdevg6.error404.boost.service.RecommendationService;
 import com.appdevg6.error404.boost.repository.userRepository;
 import com.appdevg6.error404.boost.repository.productRepository;
@@ -24,6 +29,9 @@ public class RecommendationController {
     @Autowired
     private RecommendationService service;
 
+    @Autowired
+    private ItemSimilarityEngine similarity;
+
     // repositories used to attach existing user/product references
     @Autowired
     private userRepository userRepo;
@@ -64,17 +72,47 @@ public class RecommendationController {
         }
 
         recommendationEntity saved = service.create(r);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(RecommendationView.from(saved));
     }
 
     @GetMapping
-    public List<recommendationEntity> getAll() {
+    public List<RecommendationView> getAll() {
         return service.findAll();
     }
 
+    // average rating of one product, from the running aggregate
+    @GetMapping("/rating/{productId}")
+    public ResponseEntity<?> getRating(@PathVariable int productId) {
+        Optional<productRatingEntity> rating = service.getRating(productId);
+        if (rating.isPresent()) {
+            return ResponseEntity.ok(rating.get());
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No ratings for product");
+    }
+
+    @GetMapping("/top-rated")
+    public List<ProductRating> getTopRated(@RequestParam(required = false) String category,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) Integer minCount) {
+        return service.getTopRated(category, limit, minCount);
+    }
+
+    // "users who rated this also liked"
+    @GetMapping("/similar/{productId}")
+    public List<ScoredProduct> getSimilar(@PathVariable int productId,
+                                          @RequestParam(required = false) Integer limit) {
+        return similarity.similar(productId, limit);
+    }
+
+    @GetMapping("/for-user/{userId}")
+    public List<ScoredProduct> getForUser(@PathVariable int userId,
+                                          @RequestParam(required = false) Integer limit) {
+        return similarity.forUser(userId, limit);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getById(@PathVariable int id) {
-        Optional<recommendationEntity> opt = service.findById(id);
+        Optional<RecommendationView> opt = service.findById(id);
         if (opt.isPresent()) {
             return ResponseEntity.ok(opt.get());
         }
@@ -82,12 +120,12 @@ public class RecommendationController {
     }
 
     @GetMapping("/user/{userId}")
-    public List<recommendationEntity> getByUser(@PathVariable int userId) {
+    public List<RecommendationView> getByUser(@PathVariable int userId) {
         return service.findByUserId(userId);
     }
 
     @GetMapping("/product/{productId}")
-    public List<recommendationEntity> getByProduct(@PathVariable int productId) {
+    public List<RecommendationView> getByProduct(@PathVariable int productId) {
         return service.findByProductId(productId);
     }
 
@@ -1,11 +1,33 @@
 package com.appdevg6.error404.boost.controller;
 
+import com.appdevg6.error404.boost.dto.CursorPage;
+import com.appdevg6.error404.boost.dto.ProductImportReport;
+import com.appdevg6.error404.boost.dto.ProductPatch;
+import com.appdevg6.error404.boost.dto.ProductSearchResult;
+import com.appdevg6.error404.boost.dto.ProductSummary;
+import com.appdevg6.error404.boost.dto.SellerDashboardSummary;
 import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.repository.userRepository;
+import com.appdevg6.error404.boost.service.ProductBulkImporter;
+import com.appdevg6.error404.boost.service.ProductCatalogExporter;
+import com.appdevg6.error404.boost.service.ProductCatalogSnapshot;
+import com.appdevg6.error404.boost.service.CatalogVersion;
+import com.appdevg6.error404.boost.service.ProductSearchIndex;
 import com.appdevg6.error404.boost.service.productService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +39,24 @@ public class productController {
     @Autowired
     private productService pserv;
 
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductBulkImporter importer;
+
+    @Autowired
+    private ProductCatalogExporter exporter;
+
+    @Autowired
+    private userRepository urepo;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductCatalogSnapshot snapshot;
+
     // CREATE
     @PostMapping("/createProduct")
     public ResponseEntity<productEntity> createProduct(@RequestBody productEntity product) {
@@ -24,28 +64,137 @@ public class productController {
         return ResponseEntity.ok(created);
     }
 
+    // BULK CREATE - NDJSON (one product per line) or CSV with a header row, streamed from the body
+    @PostMapping(value = "/bulkImport", consumes = {"application/x-ndjson", "application/jsonl", "text/csv"})
+    public ResponseEntity<?> bulkImport(@RequestParam Integer sellerId,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        HttpServletRequest request) throws IOException {
+        if (!urepo.existsById(sellerId)) {
+            return ResponseEntity.badRequest().body("Seller " + sellerId + " does not exist");
+        }
+        ProductBulkImporter.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ProductBulkImporter.Format.CSV : ProductBulkImporter.Format.NDJSON;
+        ProductImportReport report = importer.importProducts(request.getInputStream(), format, sellerId);
+        return ResponseEntity.ok(report);
+    }
+
     // READ ALL
     @GetMapping("/getAllProducts")
-    public ResponseEntity<List<productEntity>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            WebRequest request) {
+        // snapshot mode: the pre-serialized catalog is written as-is, gzipped if the client accepts it
+        ProductCatalogSnapshot.Snapshot snap = snapshot.current();
+        if (snap != null) {
+            boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+            String etag = gzip ? snap.gzipEtag() : snap.etag();
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? snap.gzip() : snap.json());
+        }
+
+        // conditional GET on the catalog version: a matching If-None-Match gets 304 before any query
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<productEntity> products = pserv.getAllProducts();
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(products);
+    }
+
+    // EXPORT - whole catalog as NDJSON or CSV, written while it is read (gzip if the client accepts it)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ProductCatalogExporter.Format f = csv ? ProductCatalogExporter.Format.CSV : ProductCatalogExporter.Format.NDJSON;
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+                exporter.export(zip, f);
+                zip.finish();
+            } else {
+                exporter.export(out, f);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? MediaType.valueOf("text/csv;charset=UTF-8") : MediaType.valueOf("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + (csv ? "csv" : "ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // READ PAGE (image-free, keyset pagination)
+    @GetMapping("/getProductPage")
+    public ResponseEntity<CursorPage<ProductSummary>> getProductPage(@RequestParam(required = false) Integer after,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(required = false) String category,
+                                                                     WebRequest request) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(pserv.getProductPage(after, size, category));
+    }
+
+    // SEARCH (name, description and category; words match as prefixes)
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResult> search(@RequestParam("q") String query,
+                                                      @RequestParam(required = false) String category,
+                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchIndex.search(query, category, limit));
     }
 
     // READ BY ID
     @GetMapping("/getProductById/{id}")
-    public ResponseEntity<productEntity> getProductById(@PathVariable Integer id) {
+    public ResponseEntity<productEntity> getProductById(@PathVariable Integer id, WebRequest request) {
+        // served from the product cache, so a 304 normally costs neither a query nor serialization
         Optional<productEntity> product = pserv.getProductById(id);
-        return product.map(ResponseEntity::ok)
-                      .orElseGet(() -> ResponseEntity.notFound().build());
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = productEtag(product.get());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(product.get());
     }
 
-    // UPDATE
+    // UPDATE - the current image stays unless a new one is sent or removeImage=true
     @PutMapping("/updateProduct/{id}")
-    public ResponseEntity<productEntity> updateProduct(@PathVariable Integer id, @RequestBody productEntity updatedProduct) {
-        productEntity updated = pserv.updateProduct(id, updatedProduct);
+    public ResponseEntity<productEntity> updateProduct(@PathVariable Integer id, @RequestBody productEntity updatedProduct,
+                                                       @RequestParam(defaultValue = "false") boolean removeImage) {
+        productEntity updated = pserv.updateProduct(id, updatedProduct, removeImage);
         return (updated != null) ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
     }
 
+    // PATCH - partial update; send the product's ETag in If-Match (or "version" in the body)
+    // to get 409 instead of overwriting someone else's newer edit
+    @PatchMapping("/{id}")
+    public ResponseEntity<productEntity> patchProduct(@PathVariable Integer id, @RequestBody ProductPatch patch,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expected = ifMatch != null ? expectedVersion(id, ifMatch) : patch.getVersion();
+        productEntity patched = pserv.patchProduct(id, patch, expected);
+        if (patched == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().eTag(productEtag(patched)).body(patched);
+    }
+
     // DELETE
     @DeleteMapping("/deleteProduct/{id}")
     public ResponseEntity<String> deleteProduct(@PathVariable Integer id) {
@@ -56,11 +205,66 @@ public class productController {
         return ResponseEntity.ok(result);
     }
 
+    // SELLER DASHBOARD - one seller's products, image-free and keyset-paginated
+    @GetMapping("/seller/{userId}/page")
+    public ResponseEntity<CursorPage<ProductSummary>> getSellerProductPage(@PathVariable Integer userId,
+                                                                           @RequestParam(required = false) Integer after,
+                                                                           @RequestParam(required = false) Integer size,
+                                                                           @RequestParam(required = false) String status,
+                                                                           WebRequest request) {
+        String etag = catalogVersion.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                .body(pserv.getSellerProductPage(userId, after, size, status));
+    }
+
+    // SELLER DASHBOARD - counts by status and category, average price and rating
+    @GetMapping("/seller/{userId}/summary")
+    public ResponseEntity<SellerDashboardSummary> getSellerSummary(@PathVariable Integer userId) {
+        return ResponseEntity.ok(pserv.getSellerSummary(userId));
+    }
+
+    // "product-<id>-<version>-<seller id>.<seller version>": the product JSON embeds its seller,
+    // so a seller update has to change the tag too
+    private static String productEtag(productEntity product) {
+        userEntity seller = product.getUser();
+        String sellerTag = seller == null ? "0" : seller.getUserID() + "." + seller.getVersion();
+        return "\"product-" + product.getProductID() + "-" + product.getVersion() + "-" + sellerTag + "\"";
+    }
+
+    // product version named by an If-Match value; null for "*", -1 (never current) for a tag of something else
+    private static Long expectedVersion(int id, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        String prefix = "\"product-" + id + "-";
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+            String rest = tag.substring(prefix.length(), tag.length() - 1);
+            int end = rest.indexOf('-');
+            try {
+                return Long.parseLong(end < 0 ? rest : rest.substring(0, end));
+            } catch (NumberFormatException ex) {
+                // falls through to a mismatch
+            }
+        }
+        return -1L;
+    }
+
     // GET PRODUCTS BY USER ID
 @GetMapping("/getProductsByUser/{userId}")
-public ResponseEntity<List<productEntity>> getProductsByUser(@PathVariable Integer userId) {
+public ResponseEntity<List<productEntity>> getProductsByUser(@PathVariable Integer userId, WebRequest request) {
+    String etag = catalogVersion.etag();
+    if (request.checkNotModified(etag)) {
+        return null;
+    }
     List<productEntity> products = pserv.getProductsByUser(userId);
-    return ResponseEntity.ok(products);
+    return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(products);
 }
 
 
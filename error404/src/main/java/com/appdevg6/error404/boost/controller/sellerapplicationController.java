@@ -6,7 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -14,6 +16,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class sellerapplicationController {
 
+    private static final int MAX_BULK_IDS = 10000;
+
     @Autowired
     private sellerapplicationService sserv;
 
@@ -39,6 +43,24 @@ public class sellerapplicationController {
                   .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // REVIEW QUEUE (Admin only) - applications in one status, oldest first, with the applicant's name
+    @GetMapping("/queue")
+    public ResponseEntity<?> getQueue(@RequestParam(defaultValue = sellerapplicationService.PENDING) String status,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(sserv.getQueue(status, after, size));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body("Invalid cursor: " + after);
+        }
+    }
+
+    // COUNTS PER STATUS (Admin only) - kept in memory, no COUNT(*) per refresh
+    @GetMapping("/counts")
+    public ResponseEntity<Map<String, Long>> getStatusCounts() {
+        return ResponseEntity.ok(sserv.getStatusCounts());
+    }
+
     // APPROVE APPLICATION (Admin only)
     @PutMapping("/approve/{id}")
     public ResponseEntity<sellerapplicationEntity> approveApplication(@PathVariable Integer id) {
@@ -53,6 +75,23 @@ public class sellerapplicationController {
         return (rejected != null) ? ResponseEntity.ok(rejected) : ResponseEntity.notFound().build();
     }
 
+    // BULK APPROVE / REJECT (Admin only) - body is a JSON array of application IDs
+    @PutMapping("/bulkApprove")
+    public ResponseEntity<?> bulkApprove(@RequestBody List<Integer> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BULK_IDS || ids.contains(null)) {
+            return ResponseEntity.badRequest().body("Expected between 1 and " + MAX_BULK_IDS + " application IDs");
+        }
+        return ResponseEntity.ok(sserv.approveApplications(ids));
+    }
+
+    @PutMapping("/bulkReject")
+    public ResponseEntity<?> bulkReject(@RequestBody List<Integer> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BULK_IDS || ids.contains(null)) {
+            return ResponseEntity.badRequest().body("Expected between 1 and " + MAX_BULK_IDS + " application IDs");
+        }
+        return ResponseEntity.ok(sserv.rejectApplications(ids));
+    }
+
     // UPDATE
     @PutMapping("/updateApplication/{id}")
     public ResponseEntity<sellerapplicationEntity> updateApplication(@PathVariable Integer id, @RequestBody sellerapplicationEntity updatedApp) {
@@ -1,17 +1,24 @@
 package com.appdevg6.error404.boost.controller;
 
+import com.appdevg6.error404.boost.config.JwtAuthenticationFilter;
+import com.appdevg6.error404.boost.config.LoginAdmissionGate;
+import com.appdevg6.error404.boost.dto.TokenPrincipal;
 import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.service.JwtService;
 import com.appdevg6.error404.boost.service.userService;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
-
 @RestController
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -21,28 +28,65 @@ public class userController {
     private userService userv;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private JwtService jwt;
+
+    @Autowired
+    private LoginAdmissionGate loginGate;
 
     // LOGIN
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         if (loginRequest == null || loginRequest.getEmail() == null || loginRequest.getPassword() == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "Email and password required"));
         }
-
-        List<userEntity> users = userv.getAllUsers();
-        for (userEntity user : users) {
-            if (user != null && loginRequest.getEmail().equals(user.getEmail())) {
-                if (user.getPassword() != null && passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                    user.setPassword(null); // ensure password not returned
-                    return ResponseEntity.ok(Map.of("success", true, "user", user));
-                }
-                break;
-            }
+        // attempt budgets per address and email are checked before any bcrypt work (429 when spent)
+        loginGate.admit(loginRequest.getEmail(), request.getRemoteAddr());
+
+        Optional<userEntity> user = userv.authenticate(loginRequest.getEmail(), loginRequest.getPassword());
+        if (user.isPresent()) {
+            user.get().setPassword(null); // ensure password not returned
+            // tokens let the client authenticate later requests without sending the password again
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("success", true);
+            body.put("user", user.get());
+            body.putAll(jwt.issueTokens(user.get()));
+            return ResponseEntity.ok(body);
         }
         return ResponseEntity.status(401).body(Map.of("success", false, "error", "Invalid email or password"));
     }
 
+    // REFRESH - new token pair for a valid refresh token; re-reads the (cached) user so role changes apply
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        String token = body == null ? null : body.get("refreshToken");
+        if (token == null || token.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "refreshToken required"));
+        }
+        TokenPrincipal principal;
+        try {
+            principal = jwt.verify(token, JwtService.REFRESH);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "Invalid or expired refresh token"));
+        }
+        Optional<userEntity> user = userv.getUserById(principal.getUserID());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "User no longer exists"));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("success", true);
+        result.putAll(jwt.issueTokens(user.get()));
+        return ResponseEntity.ok(result);
+    }
+
+    // ME - who the bearer token belongs to; answered from the token alone
+    @GetMapping("/me")
+    public ResponseEntity<?> me(@RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL, required = false) TokenPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "Bearer token required"));
+        }
+        return ResponseEntity.ok(principal);
+    }
+
     // REGISTER
     @PostMapping("/register")
     public ResponseEntity<userEntity> register(@RequestBody userEntity user) {
@@ -66,10 +110,17 @@ public class userController {
 
     // READ BY ID
     @GetMapping("/getUserById/{id}")
-    public ResponseEntity<userEntity> getUserById(@PathVariable Integer id) {
+    public ResponseEntity<userEntity> getUserById(@PathVariable Integer id, WebRequest request) {
+        // served from the user cache; a matching If-None-Match gets 304 without serialization
         Optional<userEntity> user = userv.getUserById(id);
-        return user.map(ResponseEntity::ok)
-                   .orElseGet(() -> ResponseEntity.notFound().build());
+        if (user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"user-" + id + "-" + user.get().getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(user.get());
     }
 
     // UPDATE
@@ -79,32 +130,26 @@ public class userController {
         return (updated != null) ? ResponseEntity.ok(updated) : ResponseEntity.notFound().build();
     }
 
-    // DELETE
+    // DELETE - optionally handing the user's products to another user with ?reassignTo=
     @DeleteMapping("/deleteUser/{id}")
-    public ResponseEntity<String> deleteUser(@PathVariable Integer id) {
-        String result = userv.deleteUser(id);
+    public ResponseEntity<String> deleteUser(@PathVariable Integer id, @RequestParam(required = false) Integer reassignTo) {
+        String result = userv.deleteUser(id, reassignTo);
         if (result.contains("not found")) {
             return ResponseEntity.status(404).body(result);
         }
+        if (result.startsWith("Cannot")) {
+            return ResponseEntity.badRequest().body(result);
+        }
         return ResponseEntity.ok(result);
     }
 
     @GetMapping("/getUserByEmail/{email}")
     public ResponseEntity<userEntity> getUserByEmail(@PathVariable String email) {
-    List<userEntity> users = userv.getAllUsers();
-    for (userEntity user : users) {
-        if (user != null && email.equals(user.getEmail())) {
-            user.setPassword(null); // Don't return password
-            return ResponseEntity.ok(user);
-        }
+        Optional<userEntity> user = userv.getUserByEmail(email);
+        user.ifPresent(u -> u.setPassword(null)); // Don't return password
+        return user.map(ResponseEntity::ok)
+                   .orElseGet(() -> ResponseEntity.notFound().build());
     }
-    return ResponseEntity.notFound().build();
-}
-
-
-
-
-
 
 }
 
@@ -0,0 +1,32 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of a bulk approve/reject: one entry per requested application ID, in
+// request order, plus exact counts per outcome.
+@Getter
+@AllArgsConstructor
+public class ApplicationDecisionReport {
+
+    public enum Outcome {
+        UPDATED,    // status changed to the requested one
+        UNCHANGED,  // application already had the requested status
+        NOT_FOUND
+    }
+
+    private String status;
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private List<Result> results;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private int applicationID;
+        private Outcome outcome;
+    }
+}
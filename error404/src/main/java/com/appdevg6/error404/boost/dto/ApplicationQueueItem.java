@@ -0,0 +1,23 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One row of the admin review queue: the application plus just enough of the
+// applicant to show who it is. Built by a JPQL constructor expression.
+@Getter
+@AllArgsConstructor
+public class ApplicationQueueItem {
+
+    private int applicationID;
+    private String applicationStatus;
+    private LocalDate applicationDate;
+    private Integer userID;
+    private String username;
+    private String firstname;
+    private String lastname;
+    private String email;
+
+}
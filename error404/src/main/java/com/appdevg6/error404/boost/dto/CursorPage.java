@@ -0,0 +1,17 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One page of a keyset-paginated listing. nextCursor is passed back as the
+// "after" parameter to get the following page and is null on the last page.
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+}
@@ -0,0 +1,25 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of a bulk product import. Only the first rejected rows are listed
+// (errorsTruncated tells whether more were dropped); the counts are always exact.
+@Getter
+@AllArgsConstructor
+public class ProductImportReport {
+
+    private int imported;
+    private int failed;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Body of PATCH /products/{id}: only non-null fields are changed. productImage
+// follows createProduct (a data URL is stored, "" removes the image); leaving it
+// out keeps the current image. version is the expected product version, an
+// alternative to sending the product's ETag in If-Match.
+@Getter
+@Setter
+public class ProductPatch {
+
+    private String productName;
+    private String productDescription;
+    private Double productPrice;
+    private String productCategory;
+    private String productStatus;
+    private LocalDate productDate;
+    private String productImage;
+    private Long version;
+
+}
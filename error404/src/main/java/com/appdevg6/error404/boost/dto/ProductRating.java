@@ -0,0 +1,28 @@
+package com.appdevg6.error404.boost.dto;
+
+import lombok.Getter;
+
+// A product together with its rating aggregate, as returned by the top-rated listing
+@Getter
+public class ProductRating {
+
+    private int productID;
+    private String productName;
+    private String productCategory;
+    private double productPrice;
+    private String productImageUrl;
+    private long ratingCount;
+    private double averageRating;
+
+    public ProductRating(int productID, String productName, String productCategory, double productPrice,
+                         String productImageRef, long ratingCount, double averageRating) {
+        this.productID = productID;
+        this.productName = productName;
+        this.productCategory = productCategory;
+        this.productPrice = productPrice;
+        this.productImageUrl = productImageRef == null ? null : "/products/images/" + productImageRef;
+        this.ratingCount = ratingCount;
+        this.averageRating = averageRating;
+    }
+
+}
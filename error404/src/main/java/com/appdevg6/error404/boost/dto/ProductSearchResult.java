@@ -0,0 +1,28 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Response of /products/search: the best hits, the total number of matches and
+// how those matches are spread over categories (before the category filter).
+@Getter
+@AllArgsConstructor
+public class ProductSearchResult {
+
+    private int total;
+    private List<Hit> items;
+    private Map<String, Integer> categories;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private int productID;
+        private String productName;
+        private String productCategory;
+        private double productPrice;
+        private String productImageUrl;
+    }
+}
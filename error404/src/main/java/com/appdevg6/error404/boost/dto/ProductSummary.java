@@ -0,0 +1,37 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.time.LocalDate;
+
+import lombok.Getter;
+
+// Image-free view of a product for listings. Built directly by JPQL constructor
+// expressions so the product_image column is never read; the image itself is
+// only linked through productImageUrl.
+@Getter
+public class ProductSummary {
+
+    private int productID;
+    private String productName;
+    private String productDescription;
+    private double productPrice;
+    private String productCategory;
+    private String productStatus;
+    private LocalDate productDate;
+    private Integer sellerID;
+    private String productImageUrl;
+
+    public ProductSummary(int productID, String productName, String productDescription, double productPrice,
+                          String productCategory, String productStatus, LocalDate productDate, Integer sellerID,
+                          String productImageRef) {
+        this.productID = productID;
+        this.productName = productName;
+        this.productDescription = productDescription;
+        this.productPrice = productPrice;
+        this.productCategory = productCategory;
+        this.productStatus = productStatus;
+        this.productDate = productDate;
+        this.sellerID = sellerID;
+        this.productImageUrl = productImageRef == null ? null : "/products/images/" + productImageRef;
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.appdevg6.error404.boost.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// (user, product, rating) as read for the recommendation engine
+@Getter
+@AllArgsConstructor
+public class RatingTriple {
+
+    private int userID;
+    private int productID;
+    private int rating;
+
+}
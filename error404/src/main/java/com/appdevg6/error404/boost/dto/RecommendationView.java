@@ -0,0 +1,66 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.time.LocalDate;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.entity.recommendationEntity;
+import com.appdevg6.error404.boost.entity.userEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Read model for recommendations. It is filled from one joined row by a JPQL
+// constructor expression, so listing recommendations is a single query and never
+// loads the product image or the user's other associations. The JSON keeps the
+// nested user/product shape the frontend already reads.
+@Getter
+public class RecommendationView {
+
+    private int recommendationID;
+    private String message;
+    private LocalDate dateGenerated;
+    private Integer rating;
+    private UserRef user;
+    private ProductRef product;
+
+    public RecommendationView(int recommendationID, String message, LocalDate dateGenerated, Integer rating,
+                              int userID, String username, String firstname, String lastname,
+                              int productID, String productName, String productCategory, double productPrice,
+                              String productImageRef) {
+        this.recommendationID = recommendationID;
+        this.message = message;
+        this.dateGenerated = dateGenerated;
+        this.rating = rating;
+        this.user = new UserRef(userID, username, firstname, lastname);
+        this.product = new ProductRef(productID, productName, productCategory, productPrice,
+                productImageRef == null ? null : "/products/images/" + productImageRef);
+    }
+
+    public static RecommendationView from(recommendationEntity r) {
+        userEntity u = r.getUser();
+        productEntity p = r.getProduct();
+        return new RecommendationView(r.getRecommendationID(), r.getMessage(), r.getDateGenerated(), r.getRating(),
+                u.getUserID(), u.getUsername(), u.getFirstname(), u.getLastname(),
+                p.getProductID(), p.getProductName(), p.getProductCategory(), p.getProductPrice(),
+                p.getProductImageRef());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class UserRef {
+        private int userID;
+        private String username;
+        private String firstname;
+        private String lastname;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ProductRef {
+        private int productID;
+        private String productName;
+        private String productCategory;
+        private double productPrice;
+        private String productImageUrl;
+    }
+}
@@ -0,0 +1,18 @@
+package com.appdevg6.error404.boost.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A recommended product and how strongly it is recommended
+@Getter
+@AllArgsConstructor
+public class ScoredProduct {
+
+    private int productID;
+    private String productName;
+    private String productCategory;
+    private double productPrice;
+    private String productImageUrl;
+    private double score;
+
+}
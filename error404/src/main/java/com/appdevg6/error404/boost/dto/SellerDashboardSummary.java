@@ -0,0 +1,23 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Aggregates for a seller's dashboard, computed by GROUP BY queries. Products without
+// a status or category are counted under "". averageRating is over all ratings of
+// the seller's products (ratingCount of them), 0 when there are none.
+@Getter
+@AllArgsConstructor
+public class SellerDashboardSummary {
+
+    private int sellerID;
+    private long totalProducts;
+    private double averagePrice;
+    private Map<String, Long> productsByStatus;
+    private Map<String, Long> productsByCategory;
+    private long ratingCount;
+    private double averageRating;
+
+}
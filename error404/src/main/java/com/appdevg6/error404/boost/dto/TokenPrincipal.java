@@ -0,0 +1,19 @@
+package com.appdevg6.error404.boost.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The user a verified access token speaks for, as read from its claims.
+// Put on the request by JwtAuthenticationFilter.
+@Getter
+@AllArgsConstructor
+public class TokenPrincipal {
+
+    private int userID;
+    private String email;
+    private String role;
+    private Instant expiresAt;
+
+}
@@ -0,0 +1,9 @@
+package com.appdevg6.error404.boost.dto;
+
+// Projection used by login: only the columns needed to check a password,
+// so a failed attempt never hydrates the full userEntity.
+public interface UserCredentials {
+    int getUserID();
+    String getEmail();
+    String getPassword();
+}
@@ -2,14 +2,26 @@ package com.appdevg6.error404.boost.entity;
 
 import java.time.LocalDate;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+// dynamic update: an UPDATE only sets the columns that changed, so a partial edit
+// does not rewrite the (possibly large) inline image
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
-@Table(name = "product")
+@Table(name = "product", indexes = {
+        // seller pages: one seller's products in productID order
+        @Index(name = "idx_product_user", columnList = "user_ID, product_ID"),
+        @Index(name = "idx_product_category", columnList = "product_category, product_ID"),
+        @Index(name = "idx_product_status", columnList = "product_status")
+})
 public class productEntity {
 
     @Id
@@ -35,11 +47,27 @@ public class productEntity {
     @Column(name = "product_date")
     private LocalDate productDate;
     
+    // Legacy inline base64 image; new uploads go to the image store instead
     @Column(name = "product_image", columnDefinition = "LONGTEXT")
     private String productImage;
 
+    // Reference ("<sha256>.<ext>") of the image in ProductImageStore
+    @Column(name = "product_image_ref", length = 80)
+    private String productImageRef;
+
+    // optimistic-lock version, also the basis of the product's ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @ManyToOne(optional = true)
     @JoinColumn(name = "user_ID", referencedColumnName = "userID", nullable = true)
     private userEntity user;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getProductImageUrl() {
+        return productImageRef == null ? null : "/products/images/" + productImageRef;
+    }
+
 }
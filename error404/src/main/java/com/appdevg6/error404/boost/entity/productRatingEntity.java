@@ -0,0 +1,31 @@
+package com.appdevg6.error404.boost.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Running rating totals per product, maintained as recommendations are created
+// and deleted so averages never have to be computed from the recommendation table.
+@Entity
+@Getter
+@Setter
+@Table(name = "product_rating", indexes = {
+        @Index(name = "idx_product_rating_avg", columnList = "rating_avg, rating_count")
+})
+public class productRatingEntity {
+
+    @Id
+    @Column(name = "product_ID")
+    private int productID;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    // stored (not derived) so top-rated queries can walk the index
+    @Column(name = "rating_avg", nullable = false)
+    private double ratingAvg;
+
+}
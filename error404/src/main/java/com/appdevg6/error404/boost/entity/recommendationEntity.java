@@ -8,7 +8,10 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "recommendation")
+@Table(name = "recommendation", indexes = {
+        @Index(name = "idx_recommendation_user", columnList = "user_ID"),
+        @Index(name = "idx_recommendation_product", columnList = "product_ID")
+})
 public class recommendationEntity {
 
     @Id
@@ -16,11 +19,12 @@ public class recommendationEntity {
     @Column(name = "recommendationID")
     private int recommendationID;
 
-    @ManyToOne(optional = false)
+    // lazy: reads go through RecommendationView projections instead of the associations
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_ID", referencedColumnName = "userID", nullable = false)
     private userEntity user;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "product_ID", referencedColumnName = "product_ID", nullable = false)
     private productEntity product;
 
@@ -9,7 +9,10 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "seller_application")
+@Table(name = "seller_application", indexes = {
+        // admin review queue: filter by status, page by (date, ID)
+        @Index(name = "idx_seller_application_queue", columnList = "application_status, application_date, application_ID")
+})
 public class sellerapplicationEntity {
 
     @Id
@@ -44,6 +44,12 @@ public class userEntity {
     @Column(name = "role")
     private String role;
 
+    // optimistic-lock version, also the basis of the user's ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @JsonIgnore  // ADD THIS - Prevents circular reference
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private sellerapplicationEntity sellerApplication;
@@ -0,0 +1,63 @@
+package com.appdevg6.error404.boost.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.appdevg6.error404.boost.dto.ProductRating;
+import com.appdevg6.error404.boost.entity.productRatingEntity;
+
+public interface ProductRatingRepository extends JpaRepository<productRatingEntity, Integer> {
+
+    // The average is assigned first so it is computed from the old totals on both MySQL
+    // (which applies assignments left to right) and H2.
+    @Modifying
+    @Query(value = "insert into product_rating (product_ID, rating_count, rating_sum, rating_avg) "
+            + "values (:productId, 1, :rating, :rating) on duplicate key update "
+            + "rating_avg = (rating_sum + :rating) * 1.0 / (rating_count + 1), "
+            + "rating_count = rating_count + 1, rating_sum = rating_sum + :rating", nativeQuery = true)
+    int addRating(@Param("productId") int productId, @Param("rating") int rating);
+
+    @Modifying
+    @Query(value = "update product_rating set "
+            + "rating_avg = case when rating_count > 1 then (rating_sum - :rating) * 1.0 / (rating_count - 1) else 0 end, "
+            + "rating_count = rating_count - 1, rating_sum = rating_sum - :rating "
+            + "where product_ID = :productId", nativeQuery = true)
+    int removeRating(@Param("productId") int productId, @Param("rating") int rating);
+
+    // Takes one user's ratings out of the totals of every product they rated, with
+    // correlated subqueries instead of reading the ratings; run before deleting them.
+    // Two statements because MySQL and H2 disagree on which totals a later SET sees.
+    @Modifying
+    @Query(value = "update product_rating set "
+            + "rating_count = rating_count - (select count(r.rating) from recommendation r "
+            + "where r.product_ID = product_rating.product_ID and r.user_ID = :userId), "
+            + "rating_sum = rating_sum - (select coalesce(sum(r.rating), 0) from recommendation r "
+            + "where r.product_ID = product_rating.product_ID and r.user_ID = :userId) "
+            + "where product_ID in (select r.product_ID from recommendation r where r.user_ID = :userId and r.rating is not null)",
+            nativeQuery = true)
+    int removeRatingsOfUser(@Param("userId") int userId);
+
+    @Modifying
+    @Query(value = "update product_rating set "
+            + "rating_avg = case when rating_count > 0 then rating_sum * 1.0 / rating_count else 0 end "
+            + "where product_ID in (select r.product_ID from recommendation r where r.user_ID = :userId and r.rating is not null)",
+            nativeQuery = true)
+    int recomputeAveragesForUser(@Param("userId") int userId);
+
+    @Modifying
+    @Query(value = "delete from product_rating where product_ID in "
+            + "(select p.product_ID from product p where p.user_ID = :userId)", nativeQuery = true)
+    int deleteAllForProductsOfUser(@Param("userId") int userId);
+
+    @Query("select new com.appdevg6.error404.boost.dto.ProductRating(p.productID, p.productName, p.productCategory, "
+            + "p.productPrice, p.productImageRef, r.ratingCount, r.ratingAvg) "
+            + "from productRatingEntity r join productEntity p on p.productID = r.productID "
+            + "where r.ratingCount >= :minCount and (:category is null or p.productCategory = :category) "
+            + "order by r.ratingAvg desc, r.ratingCount desc")
+    List<ProductRating> findTopRated(@Param("category") String category, @Param("minCount") long minCount, Limit limit);
+}
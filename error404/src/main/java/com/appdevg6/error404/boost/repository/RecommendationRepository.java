@@ -1,10 +1,72 @@
 package com.appdevg6.error404.boost.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import com.appdevg6.error404.boost.dto.RatingTriple;
+import com.appdevg6.error404.boost.dto.RecommendationView;
 import com.appdevg6.error404.boost.entity.recommendationEntity;
+import jakarta.persistence.QueryHint;
 
 public interface RecommendationRepository extends JpaRepository<recommendationEntity, Integer> {
-    List<recommendationEntity> findByUserUserID(int userID);
-    List<recommendationEntity> findByProductProductID(int productID);
-}
\ No newline at end of file
+
+    // one joined row per recommendation, projected straight into RecommendationView
+    String VIEW = "select new com.appdevg6.error404.boost.dto.RecommendationView(r.recommendationID, r.message, "
+            + "r.dateGenerated, r.rating, u.userID, u.username, u.firstname, u.lastname, "
+            + "p.productID, p.productName, p.productCategory, p.productPrice, p.productImageRef) "
+            + "from recommendationEntity r join r.user u join r.product p ";
+
+    @Query(VIEW + "order by r.recommendationID")
+    List<RecommendationView> findAllViews();
+
+    @Query(VIEW + "where r.recommendationID = :id")
+    Optional<RecommendationView> findViewById(@Param("id") int id);
+
+    @Query(VIEW + "where u.userID = :userId order by r.recommendationID")
+    List<RecommendationView> findViewsByUser(@Param("userId") int userId);
+
+    @Query(VIEW + "where p.productID = :productId order by r.recommendationID")
+    List<RecommendationView> findViewsByProduct(@Param("productId") int productId);
+
+    // product and rating of one recommendation, without loading its user or product
+    @Query("select r.product.productID as productID, r.rating as rating from recommendationEntity r "
+            + "where r.recommendationID = :id")
+    Optional<RatingRef> findRatingRef(@Param("id") int id);
+
+    @Modifying
+    @Query("delete from recommendationEntity r where r.recommendationID = :id")
+    int deleteByRecommendationID(@Param("id") int id);
+
+    // Set-based user deletion: reviews written by the user, and reviews of the user's products
+    @Modifying
+    @Query(value = "delete from recommendation where user_ID = :userID", nativeQuery = true)
+    int deleteAllByUser(@Param("userID") int userID);
+
+    @Modifying
+    @Query(value = "delete from recommendation where product_ID in "
+            + "(select p.product_ID from product p where p.user_ID = :userID)", nativeQuery = true)
+    int deleteAllForProductsOfUser(@Param("userID") int userID);
+
+    // every rating as a flat triple; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.appdevg6.error404.boost.dto.RatingTriple(r.user.userID, r.product.productID, r.rating) "
+            + "from recommendationEntity r where r.rating is not null")
+    Stream<RatingTriple> streamRatings();
+
+    // the ratings of a few products, for incremental recommendation refreshes
+    @Query("select new com.appdevg6.error404.boost.dto.RatingTriple(r.user.userID, r.product.productID, r.rating) "
+            + "from recommendationEntity r where r.rating is not null and r.product.productID in :productIDs")
+    List<RatingTriple> findRatingsOfProducts(@Param("productIDs") Collection<Integer> productIDs);
+
+    interface RatingRef {
+        int getProductID();
+        Integer getRating();
+    }
+}
@@ -1,12 +1,101 @@
 package com.appdevg6.error404.boost.repository;
 
+import com.appdevg6.error404.boost.dto.ProductSummary;
 import com.appdevg6.error404.boost.entity.productEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface productRepository extends JpaRepository<productEntity, Integer> {
     // Find all products by user ID
     List<productEntity> findByUser_UserID(Integer userID);
-}
\ No newline at end of file
+
+    // Keyset page of one seller's image-free summaries, walking the (user_ID, product_ID) index
+    @Query("select new com.appdevg6.error404.boost.dto.ProductSummary(p.productID, p.productName, "
+            + "p.productDescription, p.productPrice, p.productCategory, p.productStatus, p.productDate, "
+            + "p.user.userID, p.productImageRef) "
+            + "from productEntity p where p.user.userID = :userID and p.productID > :after "
+            + "and (:status is null or p.productStatus = :status) "
+            + "order by p.productID")
+    List<ProductSummary> findSellerSummariesAfter(@Param("userID") int userID, @Param("after") int after,
+                                                  @Param("status") String status, Limit limit);
+
+    // Seller dashboard aggregates
+    @Query("select coalesce(p.productStatus, '') as key, count(p) as count, sum(p.productPrice) as priceSum "
+            + "from productEntity p where p.user.userID = :userID group by coalesce(p.productStatus, '')")
+    List<GroupCount> countSellerProductsByStatus(@Param("userID") int userID);
+
+    @Query("select coalesce(p.productCategory, '') as key, count(p) as count, sum(p.productPrice) as priceSum "
+            + "from productEntity p where p.user.userID = :userID group by coalesce(p.productCategory, '')")
+    List<GroupCount> countSellerProductsByCategory(@Param("userID") int userID);
+
+    @Query("select coalesce(sum(r.ratingCount), 0) as ratingCount, coalesce(sum(r.ratingSum), 0) as ratingSum "
+            + "from productRatingEntity r, productEntity p "
+            + "where r.productID = p.productID and p.user.userID = :userID")
+    RatingTotals sumSellerRatings(@Param("userID") int userID);
+
+    boolean existsByUser_UserID(Integer userID);
+
+    // Keyset page of image-free summaries: everything after the given productID,
+    // optionally restricted to one category
+    @Query("select new com.appdevg6.error404.boost.dto.ProductSummary(p.productID, p.productName, "
+            + "p.productDescription, p.productPrice, p.productCategory, p.productStatus, p.productDate, "
+            + "u.userID, p.productImageRef) "
+            + "from productEntity p left join p.user u "
+            + "where p.productID > :after and (:category is null or p.productCategory = :category) "
+            + "order by p.productID")
+    List<ProductSummary> findSummariesAfter(@Param("after") int after, @Param("category") String category, Limit limit);
+
+    // The whole catalog as image-free summaries for exports. Must be consumed inside a
+    // transaction; rows are fetched from the server in chunks rather than all at once.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.appdevg6.error404.boost.dto.ProductSummary(p.productID, p.productName, "
+            + "p.productDescription, p.productPrice, p.productCategory, p.productStatus, p.productDate, "
+            + "u.userID, p.productImageRef) "
+            + "from productEntity p left join p.user u order by p.productID")
+    Stream<ProductSummary> streamSummaries();
+
+    // Set-based user deletion: hand all of a user's products to another user, or drop them
+    @Modifying
+    @Query(value = "update product set user_ID = :to, version = version + 1 where user_ID = :from", nativeQuery = true)
+    int reassignAllByUser(@Param("from") int from, @Param("to") int to);
+
+    @Modifying
+    @Query(value = "delete from product where user_ID = :userID", nativeQuery = true)
+    int deleteAllByUser(@Param("userID") int userID);
+
+    // Products that still carry an inline base64 image, in productID order
+    @Query("select p.productID as productID, p.productImage as productImage from productEntity p "
+            + "where p.productID > :after and p.productImage like 'data:%' order by p.productID")
+    List<InlineImage> findInlineImagesAfter(@Param("after") int after, Limit limit);
+
+    @Modifying
+    @Query("update productEntity p set p.productImageRef = :ref, p.productImage = null, p.version = p.version + 1 "
+            + "where p.productID = :id")
+    int moveImageToStore(@Param("id") int id, @Param("ref") String ref);
+
+    interface InlineImage {
+        int getProductID();
+        String getProductImage();
+    }
+
+    interface GroupCount {
+        String getKey();
+        long getCount();
+        Double getPriceSum();
+    }
+
+    interface RatingTotals {
+        long getRatingCount();
+        long getRatingSum();
+    }
+}
@@ -1,9 +1,70 @@
 package com.appdevg6.error404.boost.repository;
 
+import com.appdevg6.error404.boost.dto.ApplicationQueueItem;
 import com.appdevg6.error404.boost.entity.sellerapplicationEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface sellerapplicationRepository extends JpaRepository<sellerapplicationEntity, Integer> {
-}
\ No newline at end of file
+
+    String QUEUE_ITEM = "select new com.appdevg6.error404.boost.dto.ApplicationQueueItem(a.applicationID, "
+            + "a.applicationStatus, a.applicationDate, u.userID, u.username, u.firstname, u.lastname, u.email) "
+            + "from sellerapplicationEntity a left join a.user u ";
+
+    // Review queue keyset pages, oldest first, walking the (status, date, ID) index.
+    // Applications without a date sort first; this one covers them (and is the first page
+    // with afterID = 0), then continues into the dated ones.
+    @Query(QUEUE_ITEM + "where a.applicationStatus = :status "
+            + "and ((a.applicationDate is null and a.applicationID > :afterID) or a.applicationDate is not null) "
+            + "order by a.applicationDate, a.applicationID")
+    List<ApplicationQueueItem> findQueueAfterUndated(@Param("status") String status, @Param("afterID") int afterID, Limit limit);
+
+    @Query(QUEUE_ITEM + "where a.applicationStatus = :status "
+            + "and (a.applicationDate > :afterDate or (a.applicationDate = :afterDate and a.applicationID > :afterID)) "
+            + "order by a.applicationDate, a.applicationID")
+    List<ApplicationQueueItem> findQueueAfter(@Param("status") String status, @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterID") int afterID, Limit limit);
+
+    @Query("select a.applicationStatus as applicationStatus, count(a) as count "
+            + "from sellerapplicationEntity a group by a.applicationStatus")
+    List<StatusCount> countByStatus();
+
+    @Query("select a.applicationStatus from sellerapplicationEntity a where a.user.userID = :userID")
+    Optional<String> findStatusByUser(@Param("userID") int userID);
+
+    @Modifying
+    @Query(value = "delete from seller_application where user_id = :userID", nativeQuery = true)
+    int deleteAllByUser(@Param("userID") int userID);
+
+    // Status and applicant of each given application, without loading the entities
+    @Query("select a.applicationID as applicationID, a.applicationStatus as applicationStatus, u.userID as userID "
+            + "from sellerapplicationEntity a left join a.user u where a.applicationID in :ids")
+    List<Decision> findDecisions(@Param("ids") Collection<Integer> ids);
+
+    // Sets the status on every given application that does not have it yet
+    @Modifying
+    @Query("update sellerapplicationEntity a set a.applicationStatus = :status "
+            + "where a.applicationID in :ids and (a.applicationStatus is null or a.applicationStatus <> :status)")
+    int updateStatus(@Param("ids") Collection<Integer> ids, @Param("status") String status);
+
+    interface Decision {
+        int getApplicationID();
+        String getApplicationStatus();
+        Integer getUserID();
+    }
+
+    interface StatusCount {
+        String getApplicationStatus();
+        long getCount();
+    }
+}
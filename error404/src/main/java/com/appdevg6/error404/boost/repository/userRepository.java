@@ -1,11 +1,33 @@
 package com.appdevg6.error404.boost.repository;
 
+import com.appdevg6.error404.boost.dto.UserCredentials;
 import com.appdevg6.error404.boost.entity.userEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+
 
 @Repository
 public interface userRepository extends JpaRepository<userEntity, Integer> {
-   
-}
\ No newline at end of file
+
+    // Lookups by email use the unique index on users.email
+    Optional<userEntity> findByEmail(String email);
+
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    // Removes just the row, without loading the user and cascading through its collections
+    @Modifying
+    @Query("delete from userEntity u where u.userID = :id")
+    int deleteRow(@Param("id") int id);
+
+    // Bulk role change; bumps the version so cached copies and ETags go stale
+    @Modifying
+    @Query("update userEntity u set u.role = :role, u.version = u.version + 1 "
+            + "where u.userID in :ids and (u.role is null or u.role <> :role)")
+    int updateRoles(@Param("ids") Collection<Integer> ids, @Param("role") String role);
+}
@@ -0,0 +1,33 @@
+package com.appdevg6.error404.boost.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// In-memory version of the product catalog as served by the list endpoints. Every
+// product or seller change bumps it, so the ETag it yields lets a list request be
+// answered with 304 before any query runs. The boot time keeps tags from an earlier
+// run from ever matching.
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    // read this before querying, so a concurrent write can only make the tag older than the data
+    public String etag() {
+        return "\"catalog-" + epoch + "-" + version.get() + "\"";
+    }
+
+    // bumped after commit: a bump before it could pair the new tag with the old rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,13 @@
+package com.appdevg6.error404.boost.service;
+
+// Thrown by ProductImageStore when an uploaded data URL cannot be decoded; mapped to 400
+public class InvalidImageException extends IllegalArgumentException {
+
+    public InvalidImageException(String message) {
+        super(message);
+    }
+
+    public InvalidImageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
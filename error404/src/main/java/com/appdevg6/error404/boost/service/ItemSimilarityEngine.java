@@ -0,0 +1,528 @@
+package com.appdevg6.error404.boost.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.dto.ProductSearchResult;
+import com.appdevg6.error404.boost.dto.RatingTriple;
+import com.appdevg6.error404.boost.dto.ScoredProduct;
+import com.appdevg6.error404.boost.repository.RecommendationRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// "Users who rated this also liked" recommendations.
+//
+// Ratings are loaded as (user, product, rating) triples into two sparse matrices
+// (product -> users and user -> products) made of primitive arrays. For every
+// product the cosine similarity to all co-rated products is accumulated on a
+// fork/join pool and only the top-K neighbours are kept. Requests are then
+// answered from those neighbour lists without touching the database.
+//
+// A scheduled refresh runs when some ratings changed. It reads only the changed
+// products' ratings and patches them into the matrices, then only recomputes the
+// neighbours of products whose similarities can actually have moved: the changed
+// products and everything co-rated with them before or after the change.
+@Service
+public class ItemSimilarityEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSimilarityEngine.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    // product IDs per IN list when reading the ratings of changed products
+    private static final int READ_CHUNK = 1000;
+
+    @Autowired
+    private RecommendationRepository repo;
+
+    @Autowired
+    private ProductSearchIndex products;
+
+    private final TransactionTemplate readTx;
+
+    @Value("${boost.recommendations.neighbours:20}")
+    private int neighbours;
+
+    // above this share of changed products a full recompute is cheaper than patching
+    @Value("${boost.recommendations.full-recompute-ratio:0.25}")
+    private double fullRecomputeRatio;
+
+    private final ForkJoinPool pool;
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private volatile Model model;
+    private volatile boolean reloadAll;
+
+    public ItemSimilarityEngine(PlatformTransactionManager txManager,
+                                @Value("${boost.recommendations.parallelism:0}") int parallelism) {
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        dirty.add(event.getProductId());
+    }
+
+    // set-based changes (e.g. deleting a user with its products and reviews) do not say
+    // which ratings went away, so the next refresh recomputes everything
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsChanged(ProductChangedEvent event) {
+        if (event.getKind() == ProductChangedEvent.Kind.BULK) {
+            reloadAll = true;
+        } else if (event.getKind() == ProductChangedEvent.Kind.DELETED) {
+            dirty.add(event.getProductId());
+        }
+    }
+
+    // SIMILAR PRODUCTS
+    public List<ScoredProduct> similar(int productId, Integer limit) {
+        Model m = model;
+        if (m == null) {
+            return List.of();
+        }
+        int item = m.ratings.itemIndex(productId);
+        if (item < 0) {
+            return List.of();
+        }
+        int max = clamp(limit);
+        int[] ids = m.neighbourIds[item];
+        float[] sims = m.neighbourSims[item];
+        Map<Integer, Double> scores = new HashMap<>();
+        List<Integer> order = new ArrayList<>();
+        for (int n = 0; n < ids.length && order.size() < max; n++) {
+            scores.put(ids[n], (double) sims[n]);
+            order.add(ids[n]);
+        }
+        return describe(order, scores);
+    }
+
+    // PERSONAL RECOMMENDATIONS - neighbours of everything the user rated, weighted by
+    // similarity times the user's rating, minus what the user already rated
+    public List<ScoredProduct> forUser(int userId, Integer limit) {
+        Model m = model;
+        if (m == null) {
+            return List.of();
+        }
+        Ratings r = m.ratings;
+        int user = Arrays.binarySearch(r.userIds, userId);
+        if (user < 0) {
+            return List.of();
+        }
+        Set<Integer> rated = new HashSet<>();
+        for (int p = r.userStart[user]; p < r.userStart[user + 1]; p++) {
+            rated.add(r.itemIds[r.userItems[p]]);
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (int p = r.userStart[user]; p < r.userStart[user + 1]; p++) {
+            int item = r.userItems[p];
+            float rating = r.userValues[p];
+            int[] ids = m.neighbourIds[item];
+            float[] sims = m.neighbourSims[item];
+            for (int n = 0; n < ids.length; n++) {
+                if (!rated.contains(ids[n])) {
+                    scores.merge(ids[n], (double) sims[n] * rating, Double::sum);
+                }
+            }
+        }
+
+        List<Integer> order = new ArrayList<>(scores.keySet());
+        order.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return describe(order.subList(0, Math.min(order.size(), clamp(limit))), scores);
+    }
+
+    private List<ScoredProduct> describe(List<Integer> order, Map<Integer, Double> scores) {
+        Map<Integer, ProductSearchResult.Hit> hits = products.lookup(order);
+        List<ScoredProduct> result = new ArrayList<>(order.size());
+        for (Integer id : order) {
+            ProductSearchResult.Hit hit = hits.get(id);
+            if (hit != null) {
+                result.add(new ScoredProduct(id, hit.getProductName(), hit.getProductCategory(),
+                        hit.getProductPrice(), hit.getProductImageUrl(), scores.get(id)));
+            }
+        }
+        return result;
+    }
+
+    private static int clamp(Integer limit) {
+        return (limit == null || limit < 1) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    }
+
+    // REFRESH
+    @Scheduled(initialDelayString = "${boost.recommendations.initial-delay-ms:0}",
+               fixedDelayString = "${boost.recommendations.refresh-interval-ms:60000}")
+    public void refresh() {
+        Model old = model;
+        boolean reload = reloadAll;
+        if (old != null && dirty.isEmpty() && !reload) {
+            return;
+        }
+        reloadAll = false;
+        // take the changes now; anything committed while we load stays dirty for next time
+        Set<Integer> changed = new HashSet<>(dirty);
+        dirty.removeAll(changed);
+
+        long start = System.nanoTime();
+        // the whole table on the first load, after a set-based change or when much changed;
+        // otherwise only the changed products' ratings
+        boolean readAll = old == null || reload || changed.size() > fullRecomputeRatio * old.ratings.itemIds.length;
+        Ratings ratings = readTx.execute(status -> {
+            if (!readAll) {
+                List<Integer> ids = new ArrayList<>(changed);
+                List<RatingTriple> fresh = new ArrayList<>();
+                for (int from = 0; from < ids.size(); from += READ_CHUNK) {
+                    fresh.addAll(repo.findRatingsOfProducts(ids.subList(from, Math.min(from + READ_CHUNK, ids.size()))));
+                }
+                return Ratings.patch(old.ratings, changed, fresh);
+            }
+            try (Stream<RatingTriple> triples = repo.streamRatings()) {
+                return Ratings.load(triples);
+            }
+        });
+        int items = ratings.itemIds.length;
+        int[][] ids = new int[items][];
+        float[][] sims = new float[items][];
+
+        int[] affected = (old == null || reload) ? null : affectedItems(old.ratings, ratings, changed);
+        boolean full = affected == null || affected.length > fullRecomputeRatio * items;
+        if (full) {
+            affected = new int[items];
+            for (int i = 0; i < items; i++) {
+                affected[i] = i;
+            }
+        } else {
+            // untouched products keep their neighbour lists (they are keyed by product ID)
+            for (int i = 0; i < items; i++) {
+                int before = old.ratings.itemIndex(ratings.itemIds[i]);
+                if (before >= 0) {
+                    ids[i] = old.neighbourIds[before];
+                    sims[i] = old.neighbourSims[before];
+                }
+            }
+        }
+        pool.invoke(new SimilarityTask(ratings, affected, 0, affected.length, neighbours, ids, sims));
+        model = new Model(ratings, ids, sims);
+
+        log.info("Recommendation model: {} products, {} users, {} recomputed ({}, {} read) in {} ms",
+                items, ratings.userIds.length, affected.length, full ? "full" : "incremental",
+                readAll ? "all ratings" : changed.size() + " products", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Indexes (in the new ratings) of changed products and of every product co-rated with one
+    private static int[] affectedItems(Ratings before, Ratings after, Set<Integer> changed) {
+        Set<Integer> productIds = new HashSet<>(changed);
+        for (Ratings r : new Ratings[] {before, after}) {
+            for (int productId : changed) {
+                int item = r.itemIndex(productId);
+                if (item < 0) {
+                    continue;
+                }
+                for (int p = r.itemStart[item]; p < r.itemStart[item + 1]; p++) {
+                    int user = r.itemUsers[p];
+                    for (int q = r.userStart[user]; q < r.userStart[user + 1]; q++) {
+                        productIds.add(r.itemIds[r.userItems[q]]);
+                    }
+                }
+            }
+        }
+        return productIds.stream().mapToInt(after::itemIndex).filter(i -> i >= 0).toArray();
+    }
+
+    private static final class Model {
+        final Ratings ratings;
+        final int[][] neighbourIds;     // product IDs, best first
+        final float[][] neighbourSims;
+
+        Model(Ratings ratings, int[][] neighbourIds, float[][] neighbourSims) {
+            this.ratings = ratings;
+            this.neighbourIds = neighbourIds;
+            this.neighbourSims = neighbourSims;
+        }
+    }
+
+    // Ratings in compressed sparse row form, in both directions. Items and users are
+    // addressed by their index in the sorted itemIds / userIds arrays.
+    static final class Ratings {
+        int[] itemIds;
+        int[] userIds;
+        int[] itemStart;    // item i's ratings are at [itemStart[i], itemStart[i + 1])
+        int[] itemUsers;
+        float[] itemValues;
+        int[] userStart;
+        int[] userItems;
+        float[] userValues;
+        double[] norms;     // euclidean norm of each item's rating vector
+
+        int itemIndex(int productId) {
+            int i = Arrays.binarySearch(itemIds, productId);
+            return i >= 0 ? i : -1;
+        }
+
+        static Ratings load(Stream<RatingTriple> triples) {
+            Triples all = new Triples();
+            triples.forEach(t -> all.add(t.getUserID(), t.getProductID(), t.getRating()));
+            return build(all);
+        }
+
+        // `old` with the ratings of the changed products replaced by `fresh`
+        static Ratings patch(Ratings old, Set<Integer> changed, List<RatingTriple> fresh) {
+            Triples all = new Triples();
+            for (int i = 0; i < old.itemIds.length; i++) {
+                if (changed.contains(old.itemIds[i])) {
+                    continue;
+                }
+                for (int k = old.itemStart[i]; k < old.itemStart[i + 1]; k++) {
+                    all.add(old.userIds[old.itemUsers[k]], old.itemIds[i], old.itemValues[k]);
+                }
+            }
+            for (RatingTriple t : fresh) {
+                all.add(t.getUserID(), t.getProductID(), t.getRating());
+            }
+            return build(all);
+        }
+
+        private static Ratings build(Triples triples) {
+            Ratings r = new Ratings();
+            r.itemIds = distinctSorted(triples.items, triples.size);
+            r.userIds = distinctSorted(triples.users, triples.size);
+            int n = triples.size;
+            int itemCount = r.itemIds.length;
+            int userCount = r.userIds.length;
+
+            // bucket the ratings by item, packed as (user index << 32 | rating bits)
+            int[] bucketStart = new int[itemCount + 1];
+            int[] item = new int[n];
+            for (int k = 0; k < n; k++) {
+                item[k] = Arrays.binarySearch(r.itemIds, triples.items[k]);
+                bucketStart[item[k] + 1]++;
+            }
+            for (int i = 0; i < itemCount; i++) {
+                bucketStart[i + 1] += bucketStart[i];
+            }
+            int[] fill = Arrays.copyOf(bucketStart, itemCount);
+            long[] packed = new long[n];
+            for (int k = 0; k < n; k++) {
+                long user = Arrays.binarySearch(r.userIds, triples.users[k]);
+                packed[fill[item[k]]++] = user << 32 | (Float.floatToRawIntBits(triples.values[k]) & 0xffffffffL);
+            }
+
+            // sort each item's ratings by user and average repeated ratings of the same pair
+            r.itemStart = new int[itemCount + 1];
+            r.itemUsers = new int[n];
+            r.itemValues = new float[n];
+            r.norms = new double[itemCount];
+            int pairs = 0;
+            for (int i = 0; i < itemCount; i++) {
+                Arrays.sort(packed, bucketStart[i], bucketStart[i + 1]);
+                for (int k = bucketStart[i]; k < bucketStart[i + 1]; ) {
+                    int user = (int) (packed[k] >>> 32);
+                    double sum = 0;
+                    int count = 0;
+                    while (k < bucketStart[i + 1] && (int) (packed[k] >>> 32) == user) {
+                        sum += Float.intBitsToFloat((int) packed[k]);
+                        count++;
+                        k++;
+                    }
+                    float value = (float) (sum / count);
+                    r.itemUsers[pairs] = user;
+                    r.itemValues[pairs] = value;
+                    r.norms[i] += (double) value * value;
+                    pairs++;
+                }
+                r.itemStart[i + 1] = pairs;
+                r.norms[i] = Math.sqrt(r.norms[i]);
+            }
+
+            // transpose into user rows
+            r.userStart = new int[userCount + 1];
+            for (int k = 0; k < pairs; k++) {
+                r.userStart[r.itemUsers[k] + 1]++;
+            }
+            for (int u = 0; u < userCount; u++) {
+                r.userStart[u + 1] += r.userStart[u];
+            }
+            int[] slots = Arrays.copyOf(r.userStart, userCount);
+            r.userItems = new int[pairs];
+            r.userValues = new float[pairs];
+            for (int i = 0; i < itemCount; i++) {
+                for (int k = r.itemStart[i]; k < r.itemStart[i + 1]; k++) {
+                    int slot = slots[r.itemUsers[k]]++;
+                    r.userItems[slot] = i;
+                    r.userValues[slot] = r.itemValues[k];
+                }
+            }
+            return r;
+        }
+
+        private static int[] distinctSorted(int[] values, int size) {
+            int[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            int n = 0;
+            for (int k = 0; k < copy.length; k++) {
+                if (k == 0 || copy[k] != copy[k - 1]) {
+                    copy[n++] = copy[k];
+                }
+            }
+            return Arrays.copyOf(copy, n);
+        }
+    }
+
+    // Computes the top-K neighbours of items[from, to), splitting the range across the pool
+    private static final class SimilarityTask extends RecursiveAction {
+
+        private static final int LEAF_SIZE = 32;
+
+        // per worker thread, reused by every leaf it runs; dot and seen are all-zero
+        // again after each item
+        private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+        private final Ratings r;
+        private final int[] items;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final int[][] outIds;
+        private final float[][] outSims;
+
+        SimilarityTask(Ratings r, int[] items, int from, int to, int k, int[][] outIds, float[][] outSims) {
+            this.r = r;
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.outIds = outIds;
+            this.outSims = outSims;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SimilarityTask(r, items, from, mid, k, outIds, outSims),
+                          new SimilarityTask(r, items, mid, to, k, outIds, outSims));
+                return;
+            }
+            Scratch scratch = SCRATCH.get().fit(r.itemIds.length, k);
+            double[] dot = scratch.dot;
+            int[] touched = scratch.touched;
+            boolean[] seen = scratch.seen;
+            int[] topIdx = scratch.topIdx;
+            float[] topSim = scratch.topSim;
+
+            for (int x = from; x < to; x++) {
+                int i = items[x];
+                int n = 0;
+                // accumulate dot products with every product that shares a user with i
+                for (int p = r.itemStart[i]; p < r.itemStart[i + 1]; p++) {
+                    int user = r.itemUsers[p];
+                    double value = r.itemValues[p];
+                    for (int q = r.userStart[user]; q < r.userStart[user + 1]; q++) {
+                        int j = r.userItems[q];
+                        if (j == i) {
+                            continue;
+                        }
+                        if (!seen[j]) {
+                            seen[j] = true;
+                            touched[n++] = j;
+                        }
+                        dot[j] += value * r.userValues[q];
+                    }
+                }
+
+                // keep the k most similar in a small array sorted best-first
+                int size = 0;
+                for (int t = 0; t < n; t++) {
+                    int j = touched[t];
+                    double denom = r.norms[i] * r.norms[j];
+                    float sim = denom == 0 ? 0f : (float) (dot[j] / denom);
+                    dot[j] = 0;
+                    seen[j] = false;
+                    if (sim <= 0 || (size == k && sim <= topSim[k - 1])) {
+                        continue;
+                    }
+                    int pos = size < k ? size++ : k - 1;
+                    while (pos > 0 && topSim[pos - 1] < sim) {
+                        topSim[pos] = topSim[pos - 1];
+                        topIdx[pos] = topIdx[pos - 1];
+                        pos--;
+                    }
+                    topSim[pos] = sim;
+                    topIdx[pos] = j;
+                }
+
+                int[] ids = new int[size];
+                for (int t = 0; t < size; t++) {
+                    ids[t] = r.itemIds[topIdx[t]];
+                }
+                outIds[i] = ids;
+                outSims[i] = Arrays.copyOf(topSim, size);
+            }
+        }
+    }
+
+    private static final class Scratch {
+        double[] dot = new double[0];
+        int[] touched = new int[0];
+        boolean[] seen = new boolean[0];
+        int[] topIdx = new int[0];
+        float[] topSim = new float[0];
+
+        // grows (never shrinks) to hold itemCount products and k neighbours
+        Scratch fit(int itemCount, int k) {
+            if (dot.length < itemCount) {
+                dot = new double[itemCount];
+                touched = new int[itemCount];
+                seen = new boolean[itemCount];
+            }
+            if (topIdx.length < k) {
+                topIdx = new int[k];
+                topSim = new float[k];
+            }
+            return this;
+        }
+    }
+
+    private static final class Triples {
+        int[] users = new int[1024];
+        int[] items = new int[1024];
+        float[] values = new float[1024];
+        int size;
+
+        void add(int user, int item, float value) {
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            users[size] = user;
+            items[size] = item;
+            values[size++] = value;
+        }
+    }
+}
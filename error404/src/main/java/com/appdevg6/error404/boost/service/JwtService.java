@@ -0,0 +1,113 @@
+package com.appdevg6.error404.boost.service;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import com.appdevg6.error404.boost.config.CacheConfig;
+import com.appdevg6.error404.boost.dto.TokenPrincipal;
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+// Issues and verifies the HS256-signed tokens handed out at login: a short-lived
+// access token sent as "Authorization: Bearer ..." and a long-lived refresh token
+// that only buys a new pair. Verification needs no DB access and no bcrypt; tokens
+// that verified once are remembered (until they expire) in the tokens cache so the
+// signature is not re-checked on every request.
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private final Key key;
+    private final JwtParser parser;
+    private final String issuer;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Cache<Object, Object> verified;
+
+    public JwtService(@Value("${boost.jwt.secret:}") String secret,
+                      @Value("${boost.jwt.issuer:boost}") String issuer,
+                      @Value("${boost.jwt.access-ttl:15m}") Duration accessTtl,
+                      @Value("${boost.jwt.refresh-ttl:14d}") Duration refreshTtl,
+                      CacheManager cacheManager) {
+        if (secret == null || secret.isBlank()) {
+            // fine for development, but every restart then invalidates all issued tokens
+            log.warn("boost.jwt.secret is not set, signing tokens with a random key");
+            this.key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+        this.issuer = issuer;
+        this.accessTtl = accessTtl;
+        this.refreshTtl = refreshTtl;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).requireIssuer(issuer).build();
+        this.verified = ((CaffeineCache) cacheManager.getCache(CacheConfig.TOKENS)).getNativeCache();
+    }
+
+    // ISSUE - access + refresh token for a logged-in user
+    public Map<String, Object> issueTokens(userEntity user) {
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("accessToken", sign(user, ACCESS, accessTtl));
+        tokens.put("refreshToken", sign(user, REFRESH, refreshTtl));
+        tokens.put("tokenType", "Bearer");
+        tokens.put("expiresIn", accessTtl.toSeconds());
+        return tokens;
+    }
+
+    private String sign(userEntity user, String type, Duration ttl) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setIssuer(issuer)
+                .setSubject(Integer.toString(user.getUserID()))
+                .claim("typ", type)
+                .claim("email", user.getEmail())
+                .claim("role", user.getRole())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(ttl)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // AUTHENTICATE - access token to principal, cached; throws JwtException if invalid or expired
+    public TokenPrincipal authenticate(String token) {
+        Object cached = verified.getIfPresent(token);
+        if (cached instanceof TokenPrincipal principal && principal.getExpiresAt().isAfter(Instant.now())) {
+            return principal;
+        }
+        TokenPrincipal principal = verify(token, ACCESS);
+        verified.put(token, principal);
+        return principal;
+    }
+
+    // VERIFY - signature, issuer, expiry and token type, without the cache
+    public TokenPrincipal verify(String token, String type) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (!type.equals(claims.get("typ", String.class))) {
+            throw new JwtException("Not an " + type + " token");
+        }
+        return new TokenPrincipal(Integer.parseInt(claims.getSubject()), claims.get("email", String.class),
+                claims.get("role", String.class), claims.getExpiration().toInstant());
+    }
+}
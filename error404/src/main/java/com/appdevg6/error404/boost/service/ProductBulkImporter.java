@@ -0,0 +1,307 @@
+package com.appdevg6.error404.boost.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.dto.ProductImportReport;
+import com.appdevg6.error404.boost.dto.ProductImportReport.RowError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Streams a seller's catalog (NDJSON or CSV) from the request body straight into
+// the product table. Rows are validated as they are read and buffered only up to
+// one JDBC batch, so memory stays flat whatever the file size. Each batch is one
+// multi-row insert (rewriteBatchedStatements) in its own transaction; a batch the
+// database refuses is retried row by row.
+@Service
+public class ProductBulkImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductBulkImporter.class);
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String INSERT = "insert into product (product_name, product_description, product_price, "
+            + "product_category, product_status, product_date, product_image_ref, user_ID) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_TEXT = 255;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private ProductImageStore imageStore;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${boost.products.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${boost.products.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ProductImportReport importProducts(InputStream body, Format format, int sellerId) throws IOException {
+        Run run = new Run(sellerId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+        if (run.imported > 0) {
+            // the search index and other read models reload in bulk instead of per row
+            events.publishEvent(ProductChangedEvent.bulk());
+        }
+        return new ProductImportReport(run.imported, run.failed, run.errors, run.errorsTruncated);
+    }
+
+    // NDJSON: one product object per line, blank lines are skipped
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = mapper.readTree(line);
+            } catch (JsonProcessingException ex) {
+                run.reject(row, "invalid JSON: " + ex.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(row, "expected a JSON object");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, JsonNode> e : node.properties()) {
+                if (!e.getValue().isNull()) {
+                    fields.put(e.getKey().toLowerCase(Locale.ROOT), e.getValue().asText());
+                }
+            }
+            run.accept(row, fields);
+        }
+    }
+
+    // CSV: RFC 4180 with a header row naming the product fields; quoted values may span lines
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        header.replaceAll(h -> h.trim().toLowerCase(Locale.ROOT));
+        long row = 0;
+        List<String> values;
+        while ((values = csv.next()) != null) {
+            row++;
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            if (values.size() != header.size()) {
+                run.reject(row, "expected " + header.size() + " columns but found " + values.size());
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                if (!values.get(i).isEmpty()) {
+                    fields.put(header.get(i), values.get(i));
+                }
+            }
+            run.accept(row, fields);
+        }
+    }
+
+    // State of one import: the pending batch plus the running counts
+    private class Run {
+        private final int sellerId;
+        private final List<Object[]> batch = new ArrayList<>();
+        private final List<Long> batchRows = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+        private int imported;
+        private int failed;
+
+        Run(int sellerId) {
+            this.sellerId = sellerId;
+        }
+
+        void accept(long row, Map<String, String> f) {
+            String name = f.get("productname");
+            String category = f.get("productcategory");
+            String description = f.get("productdescription");
+            String status = f.getOrDefault("productstatus", "Available");
+            if (name == null || name.isBlank()) {
+                reject(row, "productName is required");
+                return;
+            }
+            if (category == null || category.isBlank()) {
+                reject(row, "productCategory is required");
+                return;
+            }
+            if (name.length() > MAX_TEXT || category.length() > MAX_TEXT || status.length() > MAX_TEXT
+                    || (description != null && description.length() > MAX_TEXT)) {
+                reject(row, "text fields are limited to " + MAX_TEXT + " characters");
+                return;
+            }
+            double price;
+            try {
+                price = Double.parseDouble(f.getOrDefault("productprice", ""));
+            } catch (NumberFormatException ex) {
+                reject(row, "productPrice must be a number");
+                return;
+            }
+            if (!(price >= 0) || Double.isInfinite(price)) {
+                reject(row, "productPrice must be zero or more");
+                return;
+            }
+            LocalDate date;
+            try {
+                date = f.containsKey("productdate") ? LocalDate.parse(f.get("productdate")) : LocalDate.now();
+            } catch (DateTimeParseException ex) {
+                reject(row, "productDate must be yyyy-MM-dd");
+                return;
+            }
+            String imageRef = null;
+            String image = f.get("productimage");
+            if (image != null) {
+                if (!ProductImageStore.isInline(image)) {
+                    reject(row, "productImage must be a base64 data URL");
+                    return;
+                }
+                try {
+                    imageRef = imageStore.store(image);
+                } catch (IllegalArgumentException ex) {
+                    reject(row, ex.getMessage());
+                    return;
+                }
+            }
+
+            batch.add(new Object[] {name, description, price, category, status, Date.valueOf(date), imageRef, sellerId});
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                tx.executeWithoutResult(status -> jdbc.batchUpdate(INSERT, batch));
+                imported += batch.size();
+            } catch (DataAccessException ex) {
+                // the chunk rolled back: retry it row by row so only the refused rows fail.
+                // The driver's message names tables and constraints, so it is only logged.
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        jdbc.update(INSERT, batch.get(i));
+                        imported++;
+                    } catch (DataAccessException rowEx) {
+                        log.warn("Bulk import for seller {}: row {} not saved: {}", sellerId, batchRows.get(i),
+                                rowEx.getMostSpecificCause().getMessage());
+                        reject(batchRows.get(i), "not saved: the database refused this row");
+                    }
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(row, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+
+    // Minimal streaming CSV tokenizer: comma separated, double-quote escaping
+    private static class CsvReader {
+        private final BufferedReader in;
+        private boolean eof;
+
+        CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = in.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            cell.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        cell.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    cell.append((char) c);
+                }
+            }
+            if (c == -1) {
+                eof = true;
+                if (!any) {
+                    return null;
+                }
+            }
+            values.add(cell.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.appdevg6.error404.boost.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.dto.ProductSummary;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes the whole catalog as NDJSON or CSV while reading it. Rows come from a
+// forward-only cursor of image-free summaries, which are never attached to the
+// persistence context, so heap use does not depend on the catalog size.
+@Service
+public class ProductCatalogExporter {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "productID,productName,productDescription,productPrice,"
+            + "productCategory,productStatus,productDate,sellerID,productImageUrl";
+
+    private final productRepository prepo;
+    private final ObjectMapper mapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readTx;
+
+    public ProductCatalogExporter(productRepository prepo, ObjectMapper mapper, PlatformTransactionManager txManager) {
+        this.prepo = prepo;
+        this.mapper = mapper;
+        // one object per line; the default flush after every value would push each row to the socket
+        this.rowWriter = mapper.writerFor(ProductSummary.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    // Returns the number of products written; the caller owns (and closes) the stream
+    public long export(OutputStream out, Format format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        SequenceWriter json = null;
+        if (format == Format.NDJSON) {
+            json = rowWriter.writeValues(writer);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+        SequenceWriter lines = json;
+        Long written = readTx.execute(status -> {
+            long rows = 0;
+            try (Stream<ProductSummary> products = prepo.streamSummaries()) {
+                for (ProductSummary p : (Iterable<ProductSummary>) products::iterator) {
+                    if (lines != null) {
+                        lines.write(p);
+                    } else {
+                        writeCsv(writer, p);
+                    }
+                    rows++;
+                }
+                if (lines != null) {
+                    lines.flush();
+                    if (rows > 0) {
+                        writer.write('\n');
+                    }
+                }
+                writer.flush();
+            } catch (IOException ex) {
+                // usually the client went away; rolling back closes the cursor
+                throw new UncheckedIOException(ex);
+            }
+            return rows;
+        });
+        return written == null ? 0 : written;
+    }
+
+    private static void writeCsv(Writer w, ProductSummary p) throws IOException {
+        w.write(Integer.toString(p.getProductID()));
+        w.write(',');
+        writeCell(w, p.getProductName());
+        w.write(',');
+        writeCell(w, p.getProductDescription());
+        w.write(',');
+        w.write(Double.toString(p.getProductPrice()));
+        w.write(',');
+        writeCell(w, p.getProductCategory());
+        w.write(',');
+        writeCell(w, p.getProductStatus());
+        w.write(',');
+        writeCell(w, p.getProductDate() == null ? null : p.getProductDate().toString());
+        w.write(',');
+        writeCell(w, p.getSellerID() == null ? null : p.getSellerID().toString());
+        w.write(',');
+        writeCell(w, p.getProductImageUrl());
+        w.write("\r\n");
+    }
+
+    // RFC 4180: quote only when needed, doubling embedded quotes
+    private static void writeCell(Writer w, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        w.write(value.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
@@ -0,0 +1,151 @@
+package com.appdevg6.error404.boost.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// The getAllProducts response, serialized once and kept as ready-to-send bytes in
+// plain and gzip form. A single background thread rebuilds it after product or
+// seller changes (bursts of changes coalesce into one rebuild) and swaps the new
+// buffers in with one reference write, so readers never wait for a rebuild; they
+// keep getting the previous snapshot, with its own ETag, until the new one is in.
+// The ETag is a hash of the serialized bytes, so a tag always names exactly the
+// body it was sent with, whatever order the change listeners ran in.
+// Disable with boost.catalog.snapshot.enabled=false to serialize per request again.
+@Component
+public class ProductCatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogSnapshot.class);
+
+    public record Snapshot(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    private final productRepository prepo;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate readTx;
+    private final Timer rebuildTimer;
+    private final boolean enabled;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-snapshot-builder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ProductCatalogSnapshot(productRepository prepo, ObjectMapper mapper, PlatformTransactionManager txManager, MeterRegistry registry,
+                                  @Value("${boost.catalog.snapshot.enabled:true}") boolean enabled) {
+        this.prepo = prepo;
+        this.mapper = mapper;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.rebuildTimer = Timer.builder("boost.catalog.snapshot.rebuild").register(registry);
+        Gauge.builder("boost.catalog.snapshot.bytes", current, ref -> ref.get() == null ? 0 : ref.get().json().length)
+                .tag("encoding", "identity").register(registry);
+        Gauge.builder("boost.catalog.snapshot.bytes", current, ref -> ref.get() == null ? 0 : ref.get().gzip().length)
+                .tag("encoding", "gzip").register(registry);
+    }
+
+    // null while disabled or before the first build has finished
+    public Snapshot current() {
+        return enabled ? current.get() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        requestRebuild();
+    }
+
+    // after commit, so the rebuild cannot read the database before the change is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        requestRebuild();
+    }
+
+    // products embed their seller, so user changes alter the catalog JSON too
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        requestRebuild();
+    }
+
+    public void requestRebuild() {
+        if (enabled && rebuildQueued.compareAndSet(false, true)) {
+            builder.execute(() -> {
+                // cleared before reading, so a change from here on queues another rebuild
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.warn("Catalog snapshot rebuild failed, keeping the previous one", ex);
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            byte[] json = readTx.execute(status -> {
+                try {
+                    return mapper.writeValueAsBytes(prepo.findAll());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            String hash = sha256(json);
+            String etag = "\"catalog-" + hash + "\"";
+            String gzipEtag = "\"catalog-" + hash + "-gzip\"";
+            current.set(new Snapshot(json, gzip(json), etag, gzipEtag));
+        });
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, data.length / 4));
+        try (GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024)) {
+            zip.write(data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        builder.shutdownNow();
+    }
+}
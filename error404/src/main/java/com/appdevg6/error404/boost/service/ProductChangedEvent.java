@@ -0,0 +1,39 @@
+package com.appdevg6.error404.boost.service;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+
+import lombok.Getter;
+
+// Published by productService after a product is written. Listeners that keep
+// derived copies of the catalog (search index, caches) update themselves from it.
+@Getter
+public class ProductChangedEvent {
+
+    public enum Kind {
+        SAVED,    // one product created or updated, product holds the saved state
+        DELETED,  // one product removed, only productId is set
+        BULK      // many rows changed by set-based SQL, listeners should reload
+    }
+
+    private final Kind kind;
+    private final Integer productId;
+    private final productEntity product;
+
+    private ProductChangedEvent(Kind kind, Integer productId, productEntity product) {
+        this.kind = kind;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(productEntity product) {
+        return new ProductChangedEvent(Kind.SAVED, product.getProductID(), product);
+    }
+
+    public static ProductChangedEvent deleted(int productId) {
+        return new ProductChangedEvent(Kind.DELETED, productId, null);
+    }
+
+    public static ProductChangedEvent bulk() {
+        return new ProductChangedEvent(Kind.BULK, null, null);
+    }
+}
@@ -0,0 +1,90 @@
+package com.appdevg6.error404.boost.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.repository.productRepository.InlineImage;
+
+// Drains legacy base64 images from product.product_image into ProductImageStore.
+// Enable with boost.images.migrate-on-startup=true; it is safe to re-run since
+// migrated rows no longer match and stored files are content-addressed.
+// The flag is read at run time rather than as a bean condition, so it can still be
+// switched on for an AOT-processed build (whose bean conditions are fixed when built).
+@Component
+public class ProductImageMigrationJob implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImageMigrationJob.class);
+
+    @Autowired
+    private productRepository prepo;
+
+    @Autowired
+    private ProductImageStore imageStore;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Value("${boost.images.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${boost.images.migration-batch-size:50}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        int migrated = migrate();
+        log.info("Moved {} inline product images into the image store", migrated);
+        if (migrated > 0) {
+            // cached products and the catalog snapshot still carry the inline images
+            events.publishEvent(ProductChangedEvent.bulk());
+        }
+    }
+
+    public int migrate() {
+        int migrated = 0;
+        int after = 0;
+        while (true) {
+            List<InlineImage> batch = prepo.findInlineImagesAfter(after, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return migrated;
+            }
+            // write the files first, then point the rows at them in one transaction per batch
+            String[] refs = new String[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                String image = batch.get(i).getProductImage();
+                try {
+                    refs[i] = ProductImageStore.isInline(image) ? imageStore.store(image) : null;
+                } catch (IllegalArgumentException ex) {
+                    log.warn("Skipping product {}: image is not valid base64", batch.get(i).getProductID());
+                }
+            }
+            migrated += tx.execute(status -> {
+                int updated = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (refs[i] != null) {
+                        updated += prepo.moveImageToStore(batch.get(i).getProductID(), refs[i]);
+                    }
+                }
+                return updated;
+            });
+            after = batch.get(batch.size() - 1).getProductID();
+        }
+    }
+}
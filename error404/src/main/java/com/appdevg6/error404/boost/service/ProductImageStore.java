@@ -0,0 +1,119 @@
+package com.appdevg6.error404.boost.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Content-addressed filesystem store for product images. A stored image is
+// identified by "<sha256>.<ext>", so identical uploads share one file and a
+// stored file never changes once written.
+@Service
+public class ProductImageStore {
+
+    private static final Pattern REF = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,5}");
+
+    // Raster types only: an SVG can carry script and would run on the app's own origin
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/png", "png",
+            "image/jpeg", "jpg",
+            "image/jpg", "jpg",
+            "image/gif", "gif",
+            "image/webp", "webp",
+            "image/bmp", "bmp");
+
+    private final Path root;
+
+    public ProductImageStore(@Value("${boost.images.dir:data/product-images}") String dir) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+    }
+
+    // True for the data URLs the frontend sends ("data:image/png;base64,....")
+    public static boolean isInline(String image) {
+        return image != null && image.startsWith("data:") && image.contains(";base64,");
+    }
+
+    // Decodes a base64 data URL, writes it under its hash and returns the reference.
+    // A malformed URL or payload fails with InvalidImageException before anything is written.
+    public String store(String dataUrl) {
+        int comma = dataUrl == null ? -1 : dataUrl.indexOf(',');
+        if (!isInline(dataUrl) || comma < 0 || !dataUrl.substring(0, comma).endsWith(";base64")) {
+            throw new InvalidImageException("productImage must be a base64 data URL");
+        }
+        String extension = EXTENSIONS.get(dataUrl.substring("data:".length(), dataUrl.indexOf(';')).toLowerCase());
+        if (extension == null) {
+            throw new InvalidImageException("productImage must be a PNG, JPEG, GIF, WebP or BMP image");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(dataUrl.substring(comma + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidImageException("productImage is not valid base64", ex);
+        }
+        if (bytes.length == 0) {
+            throw new InvalidImageException("productImage is empty");
+        }
+
+        String ref = sha256(bytes) + "." + extension;
+        Path target = pathOf(ref);
+        if (Files.exists(target)) {
+            return ref;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // write to a temp file first so readers never see a partial image
+            Path tmp = Files.createTempFile(target.getParent(), ".upload", ".tmp");
+            try {
+                Files.write(tmp, bytes);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store product image " + ref, ex);
+        }
+        return ref;
+    }
+
+    // Returns the file for a reference, or null if the reference is malformed or unknown
+    public Path resolve(String ref) {
+        if (ref == null || !REF.matcher(ref).matches()) {
+            return null;
+        }
+        Path path = pathOf(ref);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    // False for files stored before SVG and unknown types were refused (".svg", ".bin")
+    public static boolean isAcceptedType(String ref) {
+        return EXTENSIONS.containsValue(ref.substring(ref.indexOf('.') + 1));
+    }
+
+    public static String hashOf(String ref) {
+        return ref.substring(0, ref.indexOf('.'));
+    }
+
+    private Path pathOf(String ref) {
+        // fan out by the first two hex digits to keep directories small
+        return root.resolve(ref.substring(0, 2)).resolve(ref);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
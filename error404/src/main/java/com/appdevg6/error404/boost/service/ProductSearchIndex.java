@@ -0,0 +1,608 @@
+package com.appdevg6.error404.boost.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.appdevg6.error404.boost.dto.ProductSearchResult;
+import com.appdevg6.error404.boost.dto.ProductSummary;
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.repository.productRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// In-process inverted index over product name, description and category.
+//
+// Terms live in a sorted map so a query word matches every term it is a prefix
+// of. Posting lists are sorted int arrays of productIDs. A query starts from the
+// rarest word and checks the remaining words against each candidate's own
+// tokens, so it never has to union or intersect large posting lists.
+//
+// The index is kept current by ProductChangedEvent and rebuilt from the database
+// in the background at startup (and after bulk changes). Writes made while a
+// rebuild is running are replayed onto the new segment before it is swapped in.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private productRepository prepo;
+
+    @Value("${boost.search.bulk-load-batch-size:5000}")
+    private int batchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "product-search-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // guarded by lock
+    private Segment segment = new Segment();
+    private List<Consumer<Segment>> pendingWrites = null;
+
+    // SEARCH
+    public ProductSearchResult search(String query, String category, Integer limit) {
+        int max = (limit == null || limit < 1) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        String[] words = tokenize(query).toArray(new String[0]);
+        if (words.length == 0) {
+            return new ProductSearchResult(0, List.of(), Map.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            return segment.search(words, category, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // In-memory product details for the given IDs; unknown IDs are left out
+    public Map<Integer, ProductSearchResult.Hit> lookup(Collection<Integer> productIds) {
+        Map<Integer, ProductSearchResult.Hit> hits = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Integer id : productIds) {
+                Integer ord = segment.ordinalOf.get(id);
+                if (ord != null) {
+                    hits.put(id, segment.docs[ord].toHit());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // INCREMENTAL UPDATES - after commit, so a rolled-back write never reaches the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.getKind()) {
+            case SAVED -> {
+                Doc doc = Doc.of(event.getProduct());
+                write(s -> s.put(doc));
+            }
+            case DELETED -> {
+                int id = event.getProductId();
+                write(s -> s.remove(id));
+            }
+            case BULK -> rebuildAsync();
+        }
+    }
+
+    private void write(Consumer<Segment> op) {
+        lock.writeLock().lock();
+        try {
+            op.accept(segment);
+            if (pendingWrites != null) {
+                pendingWrites.add(op);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // BULK LOAD
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        loader.execute(this::rebuild);
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        HashMap<String, Term> terms = new HashMap<>();
+        try {
+            int after = 0;
+            while (true) {
+                List<ProductSummary> page = prepo.findSummariesAfter(after, null, Limit.of(batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                // tokenizing is the expensive part and is independent per product
+                List<Doc> docs = page.parallelStream().map(Doc::of).toList();
+                for (Doc doc : docs) {
+                    fresh.append(doc, terms);
+                }
+                after = page.get(page.size() - 1).getProductID();
+            }
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.warn("Product search index rebuild failed, keeping the current index", ex);
+            return;
+        }
+        fresh.finishBulk(terms);
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Segment> op : pendingWrites) {
+                op.accept(fresh);
+            }
+            pendingWrites = null;
+            segment = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} products for search in {} ms", fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    // Lower-cased letter/digit runs, de-duplicated, in order of appearance
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Documents are addressed by a dense ordinal so per-query bookkeeping is array based;
+    // terms get an integer id so a document can be checked against a query word cheaply.
+    private static final class Segment {
+        final HashMap<Integer, Integer> ordinalOf = new HashMap<>();
+        Doc[] docs = new Doc[1024];
+        int[] categoryOf = new int[1024];   // category code per ordinal, -1 if none
+        // term ids of each document, packed: termPool[termStart[ord] .. + termCount[ord]),
+        // the first nameCount[ord] of them come from the product name
+        int[] termStart = new int[1024];
+        int[] termCount = new int[1024];
+        int[] nameCount = new int[1024];
+        int[] termPool = new int[8192];
+        int poolSize;
+        int poolGarbage;
+        int ordinals;
+        final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+
+        final TreeMap<String, Term> terms = new TreeMap<>();
+        int termIds;
+
+        final HashMap<String, Integer> categoryCodes = new HashMap<>();
+        final ArrayList<String> categories = new ArrayList<>();
+
+        int size() {
+            return ordinalOf.size();
+        }
+
+        void put(Doc doc) {
+            remove(doc.id);
+            int ord = freeOrdinals.isEmpty() ? nextOrdinal() : freeOrdinals.pop();
+            store(ord, doc);
+            for (int i = 0; i < doc.tokens.length; i++) {
+                terms.computeIfAbsent(doc.tokens[i], k -> new Term(termIds++)).postings.add(entry(ord, doc, i));
+            }
+            bindTerms(ord);
+        }
+
+        // bulk path: ordinals are handed out in increasing order, so postings stay sorted by appending
+        void append(Doc doc, HashMap<String, Term> buildTerms) {
+            int ord = nextOrdinal();
+            store(ord, doc);
+            for (int i = 0; i < doc.tokens.length; i++) {
+                buildTerms.computeIfAbsent(doc.tokens[i], k -> new Term(termIds++)).postings.append(entry(ord, doc, i));
+            }
+        }
+
+        void finishBulk(HashMap<String, Term> buildTerms) {
+            terms.putAll(buildTerms);
+            for (int ord = 0; ord < ordinals; ord++) {
+                if (docs[ord] != null) {
+                    bindTerms(ord);
+                }
+            }
+        }
+
+        private void bindTerms(int ord) {
+            Doc doc = docs[ord];
+            if (poolSize + doc.tokens.length > termPool.length) {
+                if (poolGarbage > poolSize / 2) {
+                    compactPool();
+                }
+                if (poolSize + doc.tokens.length > termPool.length) {
+                    termPool = Arrays.copyOf(termPool, Math.max(termPool.length * 2, poolSize + doc.tokens.length));
+                }
+            }
+            termStart[ord] = poolSize;
+            termCount[ord] = doc.tokens.length;
+            nameCount[ord] = doc.nameTokenCount;
+            for (String token : doc.tokens) {
+                termPool[poolSize++] = terms.get(token).id;
+            }
+        }
+
+        // drops the term ids of removed documents from the pool
+        private void compactPool() {
+            int[] pool = new int[termPool.length];
+            int size = 0;
+            for (int ord = 0; ord < ordinals; ord++) {
+                if (docs[ord] != null) {
+                    System.arraycopy(termPool, termStart[ord], pool, size, termCount[ord]);
+                    termStart[ord] = size;
+                    size += termCount[ord];
+                }
+            }
+            termPool = pool;
+            poolSize = size;
+            poolGarbage = 0;
+        }
+
+        void remove(int id) {
+            Integer ord = ordinalOf.remove(id);
+            if (ord == null) {
+                return;
+            }
+            Doc doc = docs[ord];
+            for (int i = 0; i < doc.tokens.length; i++) {
+                Term term = terms.get(doc.tokens[i]);
+                if (term != null && term.postings.remove(entry(ord, doc, i)) && term.postings.size == 0) {
+                    terms.remove(doc.tokens[i]);
+                }
+            }
+            docs[ord] = null;
+            poolGarbage += termCount[ord];
+            termCount[ord] = 0;
+            freeOrdinals.push(ord);
+        }
+
+        // posting entries are (ordinal << 1 | 1 if the token comes from the product name),
+        // which keeps them sorted by ordinal and lets one-word queries score without the Doc
+        private static int entry(int ord, Doc doc, int token) {
+            return ord << 1 | (token < doc.nameTokenCount ? 1 : 0);
+        }
+
+        private int nextOrdinal() {
+            if (ordinals == docs.length) {
+                docs = Arrays.copyOf(docs, ordinals * 2);
+                categoryOf = Arrays.copyOf(categoryOf, ordinals * 2);
+                termStart = Arrays.copyOf(termStart, ordinals * 2);
+                termCount = Arrays.copyOf(termCount, ordinals * 2);
+                nameCount = Arrays.copyOf(nameCount, ordinals * 2);
+            }
+            return ordinals++;
+        }
+
+        private void store(int ord, Doc doc) {
+            docs[ord] = doc;
+            ordinalOf.put(doc.id, ord);
+            categoryOf[ord] = doc.category == null ? -1 : categoryCodes.computeIfAbsent(doc.category, c -> {
+                categories.add(c);
+                return categories.size() - 1;
+            });
+        }
+
+        // -1 if some word matches none of the document's terms; otherwise higher is better:
+        // exact beats prefix and name matches beat description/category matches
+        int score(int ord, QueryWord[] query) {
+            int from = termStart[ord];
+            int to = from + termCount[ord];
+            int names = from + nameCount[ord];
+            int score = 0;
+            for (QueryWord word : query) {
+                int best = -1;
+                for (int i = from; i < to && best < 4; i++) {
+                    int termId = termPool[i];
+                    int points;
+                    if (termId == word.exactId) {
+                        points = 2;
+                    } else if (word.matches(termId)) {
+                        points = 1;
+                    } else {
+                        continue;
+                    }
+                    if (i < names) {
+                        points += 2;
+                    }
+                    best = Math.max(best, points);
+                }
+                if (best < 0) {
+                    return -1;
+                }
+                score += best;
+            }
+            return score;
+        }
+
+        ProductSearchResult search(String[] words, String category, int max) {
+            QueryWord[] query = new QueryWord[words.length];
+            // the word with the fewest candidate documents drives the scan
+            int driver = 0;
+            for (int i = 0; i < words.length; i++) {
+                query[i] = new QueryWord(words[i], terms.subMap(words[i], true, words[i] + Character.MAX_VALUE, false));
+                if (query[i].candidates == 0) {
+                    return new ProductSearchResult(0, List.of(), Map.of());
+                }
+                if (query[i].candidates < query[driver].candidates) {
+                    driver = i;
+                }
+            }
+
+            int categoryFilter = -2;   // -2: no filter, -1: unknown category
+            if (category != null && !category.isBlank()) {
+                categoryFilter = -1;
+                for (int c = 0; c < categories.size(); c++) {
+                    if (categories.get(c).equalsIgnoreCase(category)) {
+                        categoryFilter = c;
+                    }
+                }
+            }
+
+            int[] facetCounts = new int[categories.size()];
+            // best hits so far as {score, ordinal}; ties go to the most recently indexed
+            // product, so postings are walked from the end and the heap rarely churns
+            PriorityQueue<long[]> top = new PriorityQueue<>(Comparator
+                    .comparingLong((long[] h) -> h[0]).thenComparingLong(h -> h[1]));
+            int total = 0;
+            QueryWord lead = query[driver];
+            // a document can sit under several expanded terms; only then is de-duplication needed
+            BitSet seen = lead.postings.size() > 1 ? new BitSet(ordinals) : null;
+            // one word matching one term: the posting entry alone says how well it matched
+            boolean fromPostings = query.length == 1 && seen == null;
+            for (int t = 0; t < lead.postings.size(); t++) {
+                Postings postings = lead.postings.get(t);
+                int base = lead.postingTermIds[t] == lead.exactId ? 2 : 1;
+                for (int i = postings.size - 1; i >= 0; i--) {
+                    int ord = postings.ids[i] >>> 1;
+                    if (seen != null) {
+                        if (seen.get(ord)) {
+                            continue;
+                        }
+                        seen.set(ord);
+                    }
+                    int score = fromPostings ? base + 2 * (postings.ids[i] & 1) : score(ord, query);
+                    if (score < 0) {
+                        continue;
+                    }
+                    int categoryCode = categoryOf[ord];
+                    if (categoryCode >= 0) {
+                        facetCounts[categoryCode]++;
+                    }
+                    if (categoryFilter != -2 && categoryCode != categoryFilter) {
+                        continue;
+                    }
+                    total++;
+                    if (top.size() < max) {
+                        top.add(new long[] {score, ord});
+                    } else {
+                        long[] worst = top.peek();
+                        if (score > worst[0] || (score == worst[0] && ord > worst[1])) {
+                            top.poll();
+                            top.add(new long[] {score, ord});
+                        }
+                    }
+                }
+            }
+
+            List<ProductSearchResult.Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                hits.add(docs[(int) top.poll()[1]].toHit());
+            }
+            Collections.reverse(hits);
+
+            Map<String, Integer> facets = new LinkedHashMap<>();
+            Integer[] order = new Integer[facetCounts.length];
+            for (int c = 0; c < order.length; c++) {
+                order[c] = c;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(facetCounts[b], facetCounts[a]));
+            for (int c : order) {
+                if (facetCounts[c] > 0) {
+                    facets.put(categories.get(c), facetCounts[c]);
+                }
+            }
+            return new ProductSearchResult(total, hits, facets);
+        }
+    }
+
+    private static final class Term {
+        final int id;
+        final Postings postings = new Postings();
+
+        Term(int id) {
+            this.id = id;
+        }
+    }
+
+    // One query word expanded to every indexed term it is a prefix of
+    private static final class QueryWord {
+        final int exactId;
+        final int[] termIds;        // sorted, for small expansions
+        final BitSet termBits;      // for large expansions
+        final List<Postings> postings = new ArrayList<>();
+        final int[] postingTermIds;   // term id of each entry in postings
+        long candidates;
+
+        QueryWord(String word, NavigableMap<String, Term> expansion) {
+            Term exact = expansion.get(word);
+            this.exactId = exact == null ? -1 : exact.id;
+            int[] ids = new int[expansion.size()];
+            int n = 0;
+            for (Term term : expansion.values()) {
+                ids[n++] = term.id;
+                postings.add(term.postings);
+                candidates += term.postings.size;
+            }
+            this.postingTermIds = ids.clone();
+            if (n > 64) {
+                termBits = new BitSet();
+                for (int id : ids) {
+                    termBits.set(id);
+                }
+                termIds = null;
+            } else {
+                Arrays.sort(ids);
+                termIds = ids;
+                termBits = null;
+            }
+        }
+
+        boolean matches(int termId) {
+            return termBits != null ? termBits.get(termId) : Arrays.binarySearch(termIds, termId) >= 0;
+        }
+    }
+
+    private static final class Doc {
+        final int id;
+        final String name;
+        final String category;
+        final double price;
+        final String imageUrl;
+        final String[] tokens;   // all distinct tokens (name, description, category)
+        final int nameTokenCount; // tokens[0..nameTokenCount) come from the name
+
+        private Doc(int id, String name, String description, String category, double price, String imageUrl) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.price = price;
+            this.imageUrl = imageUrl;
+            Set<String> all = tokenize(name);
+            this.nameTokenCount = all.size();
+            all.addAll(tokenize(description));
+            all.addAll(tokenize(category));
+            this.tokens = all.toArray(new String[0]);
+        }
+
+        static Doc of(productEntity p) {
+            return new Doc(p.getProductID(), p.getProductName(), p.getProductDescription(),
+                    p.getProductCategory(), p.getProductPrice(), p.getProductImageUrl());
+        }
+
+        static Doc of(ProductSummary p) {
+            return new Doc(p.getProductID(), p.getProductName(), p.getProductDescription(),
+                    p.getProductCategory(), p.getProductPrice(), p.getProductImageUrl());
+        }
+
+        ProductSearchResult.Hit toHit() {
+            return new ProductSearchResult.Hit(id, name, category, price, imageUrl);
+        }
+    }
+
+    // Sorted, growable array of posting entries
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void append(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insert = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.appdevg6.error404.boost.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by RecommendationService when a rating for a product is added or removed
+@Getter
+@AllArgsConstructor
+public class RatingChangedEvent {
+
+    private final int productId;
+
+}
@@ -3,37 +3,91 @@ package com.appdevg6.error404.boost.service;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import com.appdevg6.error404.boost.dto.ProductRating;
+import com.appdevg6.error404.boost.dto.RecommendationView;
+import com.appdevg6.error404.boost.entity.productRatingEntity;
 import com.appdevg6.error404.boost.entity.recommendationEntity;
+import com.appdevg6.error404.boost.repository.ProductRatingRepository;
 import com.appdevg6.error404.boost.repository.RecommendationRepository;
+import com.appdevg6.error404.boost.repository.RecommendationRepository.RatingRef;
 
 @Service
 public class RecommendationService {
 
+    public static final int DEFAULT_TOP_RATED = 10;
+    public static final int MAX_TOP_RATED = 100;
+
     @Autowired
     private RecommendationRepository repo;
 
+    @Autowired
+    private ProductRatingRepository ratingRepo;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    // Saving the recommendation and bumping the product's rating totals commit together
+    @Transactional
     public recommendationEntity create(recommendationEntity r) {
-        return repo.save(r);
+        recommendationEntity saved = repo.save(r);
+        if (saved.getRating() != null) {
+            ratingRepo.addRating(saved.getProduct().getProductID(), saved.getRating());
+            events.publishEvent(new RatingChangedEvent(saved.getProduct().getProductID()));
+        }
+        return saved;
     }
 
-    public Optional<recommendationEntity> findById(int id) {
-        return repo.findById(id);
+    // READS - flat projections, one query each
+    public Optional<RecommendationView> findById(int id) {
+        return repo.findViewById(id);
     }
 
-    public List<recommendationEntity> findAll() {
-        return repo.findAll();
+    public List<RecommendationView> findAll() {
+        return repo.findAllViews();
     }
 
-    public List<recommendationEntity> findByUserId(int userId) {
-        return repo.findByUserUserID(userId);
+    public List<RecommendationView> findByUserId(int userId) {
+        return repo.findViewsByUser(userId);
     }
 
-    public List<recommendationEntity> findByProductId(int productId) {
-        return repo.findByProductProductID(productId);
+    public List<RecommendationView> findByProductId(int productId) {
+        return repo.findViewsByProduct(productId);
     }
 
+    @Transactional
     public void delete(int id) {
-        repo.deleteById(id);
+        Optional<RatingRef> ref = repo.findRatingRef(id);
+        if (ref.isPresent() && repo.deleteByRecommendationID(id) > 0 && ref.get().getRating() != null) {
+            ratingRepo.removeRating(ref.get().getProductID(), ref.get().getRating());
+            events.publishEvent(new RatingChangedEvent(ref.get().getProductID()));
+        }
+    }
+
+    // RATINGS - served from the product_rating aggregates, never from the recommendation table
+    public Optional<productRatingEntity> getRating(int productId) {
+        return ratingRepo.findById(productId);
+    }
+
+    public List<ProductRating> getTopRated(String category, Integer limit, Integer minCount) {
+        int max = (limit == null || limit < 1) ? DEFAULT_TOP_RATED : Math.min(limit, MAX_TOP_RATED);
+        String cat = (category == null || category.isBlank()) ? null : category;
+        long min = (minCount == null || minCount < 1) ? 1 : minCount;
+        return ratingRepo.findTopRated(cat, min, Limit.of(max));
+    }
+
+    // After commit like the other product listeners, so a rolled-back delete keeps its
+    // totals; the aggregates themselves were seeded by the V2 migration.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getKind() == ProductChangedEvent.Kind.DELETED) {
+            ratingRepo.deleteAllByIdInBatch(List.of(event.getProductId()));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.appdevg6.error404.boost.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.appdevg6.error404.boost.repository.sellerapplicationRepository;
+import com.appdevg6.error404.boost.repository.sellerapplicationRepository.StatusCount;
+
+// Number of seller applications per status, kept in memory for the admin dashboard.
+// sellerapplicationService (and userService, for applications removed with their user)
+// adjusts it on every status change, once the change has committed; a periodic GROUP BY
+// resync corrects whatever it cannot see.
+@Component
+public class SellerApplicationCounts {
+
+    private final sellerapplicationRepository srepo;
+    private volatile Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    public SellerApplicationCounts(sellerapplicationRepository srepo) {
+        this.srepo = srepo;
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((status, n) -> result.put(status, n.get()));
+        return result;
+    }
+
+    // one application went from `from` to `to`; null means it did not exist before/after.
+    // Applied once the surrounding transaction commits (at once outside one), so a rolled
+    // back change never shows up and readers never see an uncommitted count.
+    public void adjustAfterCommit(String from, String to) {
+        adjustAfterCommit(from, to, 1);
+    }
+
+    // n applications went from `from` to `to`
+    public void adjustAfterCommit(String from, String to, long n) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjust(from, to, n);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjust(from, to, n);
+            }
+        });
+    }
+
+    private void adjust(String from, String to, long n) {
+        if (n == 0 || (from != null && from.equals(to))) {
+            return;
+        }
+        Map<String, AtomicLong> current = counts;
+        if (from != null) {
+            current.computeIfAbsent(from, s -> new AtomicLong()).addAndGet(-n);
+        }
+        if (to != null) {
+            current.computeIfAbsent(to, s -> new AtomicLong()).addAndGet(n);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${boost.seller-applications.counts-resync-ms:300000}",
+               fixedDelayString = "${boost.seller-applications.counts-resync-ms:300000}")
+    public void resync() {
+        Map<String, AtomicLong> fresh = new ConcurrentHashMap<>();
+        for (StatusCount row : srepo.countByStatus()) {
+            if (row.getApplicationStatus() != null) {
+                fresh.put(row.getApplicationStatus(), new AtomicLong(row.getCount()));
+            }
+        }
+        counts = fresh;
+    }
+}
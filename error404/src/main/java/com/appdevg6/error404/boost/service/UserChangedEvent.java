@@ -0,0 +1,14 @@
+package com.appdevg6.error404.boost.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by userService after a user is updated or deleted. Product listings embed
+// the seller, so catalog-level read models refresh on it too.
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final int userId;
+
+}
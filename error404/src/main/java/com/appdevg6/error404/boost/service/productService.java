@@ -1,24 +1,54 @@
 package com.appdevg6.error404.boost.service;
 
+import com.appdevg6.error404.boost.config.CacheConfig;
+import com.appdevg6.error404.boost.dto.CursorPage;
+import com.appdevg6.error404.boost.dto.ProductPatch;
+import com.appdevg6.error404.boost.dto.ProductSummary;
+import com.appdevg6.error404.boost.dto.SellerDashboardSummary;
 import com.appdevg6.error404.boost.entity.productEntity;
 import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.repository.productRepository.GroupCount;
+import com.appdevg6.error404.boost.repository.productRepository.RatingTotals;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.NoSuchElementException;
+import java.util.TreeMap;
 
 @Service
 public class productService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private productRepository prepo;
 
+    @Autowired
+    private ProductImageStore imageStore;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     // CREATE
     public productEntity createProduct(productEntity product) {
-        return prepo.save(product);
+        applyImage(product, product.getProductImage(), product.getProductImageRef(), true);
+        productEntity saved = prepo.save(product);
+        events.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
     }
 
     // READ (All)
@@ -26,38 +56,154 @@ public class productService {
         return prepo.findAll();
     }
 
-    // READ (By ID)
+    // READ (Page) - keyset pagination on productID, no images
+    public CursorPage<ProductSummary> getProductPage(Integer after, Integer size, String category) {
+        int pageSize = (size == null || size < 1) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        int cursor = (after == null) ? 0 : after;
+        String cat = (category == null || category.isBlank()) ? null : category;
+
+        // fetch one extra row to know whether another page exists
+        List<ProductSummary> rows = prepo.findSummariesAfter(cursor, cat, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ProductSummary> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, String.valueOf(page.get(pageSize - 1).getProductID()));
+    }
+
+    // READ (By ID) - cached; evicted through ProductChangedEvent below
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Optional<productEntity> getProductById(Integer id) {
         return prepo.findById(id);
     }
 
-    // READ (By User ID)
+    // READ (By User ID) - indexed lookup instead of filtering the whole table
     public List<productEntity> getProductsByUser(Integer userId) {
-        return prepo.findAll().stream()
-            .filter(product -> product.getUser() != null && 
-                    product.getUser().getUserID() == userId)
-            .collect(Collectors.toList());
+        return prepo.findByUser_UserID(userId);
     }
 
-    // UPDATE
-    @SuppressWarnings("finally")
+    // READ (Seller page) - one seller's image-free summaries, keyset-paginated on productID
+    public CursorPage<ProductSummary> getSellerProductPage(int userId, Integer after, Integer size, String status) {
+        int pageSize = (size == null || size < 1) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        int cursor = (after == null) ? 0 : after;
+        String st = (status == null || status.isBlank()) ? null : status;
+
+        List<ProductSummary> rows = prepo.findSellerSummariesAfter(userId, cursor, st, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ProductSummary> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, String.valueOf(page.get(pageSize - 1).getProductID()));
+    }
+
+    // READ (Seller summary) - three aggregate queries, no entities loaded
+    public SellerDashboardSummary getSellerSummary(int userId) {
+        Map<String, Long> byStatus = new TreeMap<>();
+        long total = 0;
+        double priceSum = 0;
+        for (GroupCount g : prepo.countSellerProductsByStatus(userId)) {
+            byStatus.put(g.getKey(), g.getCount());
+            total += g.getCount();
+            priceSum += g.getPriceSum() == null ? 0 : g.getPriceSum();
+        }
+        Map<String, Long> byCategory = new TreeMap<>();
+        for (GroupCount g : prepo.countSellerProductsByCategory(userId)) {
+            byCategory.put(g.getKey(), g.getCount());
+        }
+        RatingTotals ratings = prepo.sumSellerRatings(userId);
+        double averageRating = ratings.getRatingCount() == 0 ? 0 : (double) ratings.getRatingSum() / ratings.getRatingCount();
+        return new SellerDashboardSummary(userId, total, total == 0 ? 0 : priceSum / total, byStatus, byCategory,
+                ratings.getRatingCount(), averageRating);
+    }
+
+    // UPDATE - saved once; a second save of the stale instance would now fail the version check
     public productEntity updateProduct(Integer id, productEntity updatedProduct) {
-        productEntity product = new productEntity();
-        try {
-            product = prepo.findById(id).get();
-            product.setProductName(updatedProduct.getProductName());
-            product.setProductDescription(updatedProduct.getProductDescription());
-            product.setProductPrice(updatedProduct.getProductPrice());
-            product.setProductImage(updatedProduct.getProductImage());
-            product.setProductCategory(updatedProduct.getProductCategory());
-            product.setProductStatus(updatedProduct.getProductStatus());
-            product.setProductDate(updatedProduct.getProductDate());
-            return prepo.save(product);
-        } catch (NoSuchElementException ex) {
-            throw new NoSuchElementException("Product " + id + " does not exist");
-        } finally {
-            return prepo.save(product);
+        return updateProduct(id, updatedProduct, false);
+    }
+
+    // removeImage: drop the current image when the request brings no new one
+    public productEntity updateProduct(Integer id, productEntity updatedProduct, boolean removeImage) {
+        Optional<productEntity> existing = prepo.findById(id);
+        if (existing.isEmpty()) {
+            return null;
         }
+        productEntity product = existing.get();
+        product.setProductName(updatedProduct.getProductName());
+        product.setProductDescription(updatedProduct.getProductDescription());
+        product.setProductPrice(updatedProduct.getProductPrice());
+        applyImage(product, updatedProduct.getProductImage(), updatedProduct.getProductImageRef(), removeImage);
+        product.setProductCategory(updatedProduct.getProductCategory());
+        product.setProductStatus(updatedProduct.getProductStatus());
+        product.setProductDate(updatedProduct.getProductDate());
+        productEntity saved = prepo.save(product);
+        events.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
+    }
+
+    // PATCH - only the given fields change, in a single version-checked UPDATE. A stale
+    // expectedVersion, or a concurrent write between read and update, fails with
+    // ObjectOptimisticLockingFailureException (409). Returns null if there is no such product.
+    @Transactional
+    public productEntity patchProduct(Integer id, ProductPatch patch, Long expectedVersion) {
+        Optional<productEntity> existing = prepo.findById(id);
+        if (existing.isEmpty()) {
+            return null;
+        }
+        productEntity product = existing.get();
+        if (expectedVersion != null && expectedVersion != product.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(productEntity.class, id);
+        }
+        if (patch.getProductName() != null) product.setProductName(patch.getProductName());
+        if (patch.getProductDescription() != null) product.setProductDescription(patch.getProductDescription());
+        if (patch.getProductPrice() != null) product.setProductPrice(patch.getProductPrice());
+        if (patch.getProductCategory() != null) product.setProductCategory(patch.getProductCategory());
+        if (patch.getProductStatus() != null) product.setProductStatus(patch.getProductStatus());
+        if (patch.getProductDate() != null) product.setProductDate(patch.getProductDate());
+        if (patch.getProductImage() != null) {
+            applyImage(product, patch.getProductImage(), null, patch.getProductImage().isBlank());
+        }
+        // flushed here so a version conflict surfaces before listeners see the change
+        productEntity saved = prepo.saveAndFlush(product);
+        events.publishEvent(ProductChangedEvent.saved(saved));
+        return saved;
+    }
+
+    // IMAGE - uploaded data URLs go to the image store and only the reference is kept.
+    // Without a new upload a known reference is used; with neither, the current image
+    // (which may still be inline, before migration) stays unless remove is set.
+    private void applyImage(productEntity product, String image, String imageRef, boolean remove) {
+        if (ProductImageStore.isInline(image)) {
+            product.setProductImageRef(imageStore.store(image));
+            product.setProductImage(null);
+        } else if (image != null && !image.isBlank()) {
+            product.setProductImage(image);
+            product.setProductImageRef(null);
+        } else if (imageStore.resolve(imageRef) != null) {
+            product.setProductImage(null);
+            product.setProductImageRef(imageRef);
+        } else if (remove) {
+            product.setProductImage(null);
+            product.setProductImageRef(null);
+        }
+    }
+
+    // CACHE - every product write publishes a ProductChangedEvent, so eviction lives in one place.
+    // After commit, so a concurrent read cannot put the old row back into the cache.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictCachedProduct(ProductChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (event.getKind() == ProductChangedEvent.Kind.BULK) {
+            cache.clear();
+        } else {
+            cache.evict(event.getProductId());
+        }
+    }
+
+    // cached products embed their seller; which products a user sells is not known here,
+    // and user changes are rare, so the whole cache goes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictProductsOfChangedUser(UserChangedEvent event) {
+        cacheManager.getCache(CacheConfig.PRODUCTS).clear();
     }
 
     // DELETE
@@ -65,6 +211,7 @@ public class productService {
         String msg = "";
         if (prepo.findById(id).isPresent()) {
             prepo.deleteById(id);
+            events.publishEvent(ProductChangedEvent.deleted(id));
             msg = "Product " + id + " deleted successfully";
         } else {
             msg = "Product " + id + " does not exist";
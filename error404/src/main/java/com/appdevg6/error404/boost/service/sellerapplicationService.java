@@ -1,28 +1,60 @@
 package com.appdevg6.error404.boost.service;
 
+import com.appdevg6.error404.boost.dto.ApplicationDecisionReport;
+import com.appdevg6.error404.boost.dto.ApplicationQueueItem;
+import com.appdevg6.error404.boost.dto.CursorPage;
+import com.appdevg6.error404.boost.dto.ApplicationDecisionReport.Outcome;
 import com.appdevg6.error404.boost.entity.sellerapplicationEntity;
-import com.appdevg6.error404.boost.entity.userEntity;
 import com.appdevg6.error404.boost.repository.sellerapplicationRepository;
-import com.appdevg6.error404.boost.repository.userRepository;
+import com.appdevg6.error404.boost.repository.sellerapplicationRepository.Decision;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class sellerapplicationService {
 
+    public static final String PENDING = "Pending";
+    public static final String APPROVED = "Approved";
+    public static final String REJECTED = "Rejected";
+
+    // IDs per IN list in the bulk decisions, so statement size stays bounded
+    private static final int BULK_CHUNK = 1000;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private sellerapplicationRepository srepo;
     
     @Autowired
-    private userRepository userRepo;
+    private userService userv;
+
+    @Autowired
+    private SellerApplicationCounts counts;
 
     // CREATE - Application stays PENDING (no auto-approve)
     public sellerapplicationEntity createSellerApplication(sellerapplicationEntity app) {
-        // Just save the application with Pending status
-        return srepo.save(app);
+        // Just save the application with Pending status, dated so it takes its place in the queue
+        if (app.getApplicationStatus() == null) {
+            app.setApplicationStatus(PENDING);
+        }
+        if (app.getApplicationDate() == null) {
+            app.setApplicationDate(LocalDate.now());
+        }
+        sellerapplicationEntity saved = srepo.save(app);
+        counts.adjustAfterCommit(null, saved.getApplicationStatus());
+        return saved;
     }
 
     // READ ALL
@@ -35,60 +67,150 @@ public class sellerapplicationService {
         return srepo.findById(id);
     }
 
-    // APPROVE APPLICATION - Admin action
+    // QUEUE - one status, oldest first, keyset-paginated. The cursor is "<date>_<id>"
+    // ("_<id>" while still among undated applications).
+    public CursorPage<ApplicationQueueItem> getQueue(String status, String after, Integer size) {
+        int pageSize = (size == null || size < 1) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);
+        List<ApplicationQueueItem> rows;
+        if (after == null || after.isBlank()) {
+            rows = srepo.findQueueAfterUndated(status, 0, limit);
+        } else {
+            int sep = after.lastIndexOf('_');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            int afterID = Integer.parseInt(after.substring(sep + 1));
+            rows = sep == 0
+                    ? srepo.findQueueAfterUndated(status, afterID, limit)
+                    : srepo.findQueueAfter(status, LocalDate.parse(after.substring(0, sep)), afterID, limit);
+        }
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ApplicationQueueItem> page = rows.subList(0, pageSize);
+        ApplicationQueueItem last = page.get(pageSize - 1);
+        String cursor = (last.getApplicationDate() == null ? "" : last.getApplicationDate().toString()) + "_" + last.getApplicationID();
+        return new CursorPage<>(page, cursor);
+    }
+
+    // COUNTS - per status, from memory
+    public Map<String, Long> getStatusCounts() {
+        return counts.snapshot();
+    }
+
+    // APPROVE APPLICATION - Admin action; the status and the role change commit together
+    @Transactional
     public sellerapplicationEntity approveApplication(Integer id) {
         Optional<sellerapplicationEntity> appOpt = srepo.findById(id);
         if (appOpt.isPresent()) {
             sellerapplicationEntity app = appOpt.get();
+            String before = app.getApplicationStatus();
             
             // Update application status
-            app.setApplicationStatus("Approved");
+            app.setApplicationStatus(APPROVED);
             
-            // Update user role to SELLER
+            // Update user role to SELLER (through userService so the cached user is evicted)
             if (app.getUser() != null) {
-                Optional<userEntity> userOpt = userRepo.findById(app.getUser().getUserID());
-                if (userOpt.isPresent()) {
-                    userEntity user = userOpt.get();
-                    user.setRole("SELLER");
-                    userRepo.save(user);
-                }
+                userv.setRole(app.getUser().getUserID(), "SELLER");
             }
             
-            return srepo.save(app);
+            sellerapplicationEntity saved = srepo.save(app);
+            counts.adjustAfterCommit(before, APPROVED);
+            return saved;
         }
         return null;
     }
 
     // REJECT APPLICATION - Admin action
+    @Transactional
     public sellerapplicationEntity rejectApplication(Integer id) {
         Optional<sellerapplicationEntity> appOpt = srepo.findById(id);
         if (appOpt.isPresent()) {
             sellerapplicationEntity app = appOpt.get();
-            app.setApplicationStatus("Rejected");
-            return srepo.save(app);
+            String before = app.getApplicationStatus();
+            app.setApplicationStatus(REJECTED);
+            sellerapplicationEntity saved = srepo.save(app);
+            counts.adjustAfterCommit(before, REJECTED);
+            return saved;
         }
         return null;
     }
 
+    // BULK APPROVE / REJECT - Admin action. Per chunk of IDs: one SELECT for the current
+    // status and applicant, one UPDATE of the applications and (approve only) one UPDATE
+    // of the applicants' roles; everything commits or rolls back together, and the
+    // in-memory counts follow after the commit.
+    @Transactional
+    public ApplicationDecisionReport approveApplications(List<Integer> ids) {
+        return decide(ids, APPROVED);
+    }
+
+    @Transactional
+    public ApplicationDecisionReport rejectApplications(List<Integer> ids) {
+        return decide(ids, REJECTED);
+    }
+
+    private ApplicationDecisionReport decide(List<Integer> ids, String status) {
+        List<Integer> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, Outcome> outcomes = new HashMap<>();
+        Map<String, Long> previous = new HashMap<>();
+        for (int from = 0; from < unique.size(); from += BULK_CHUNK) {
+            List<Integer> chunk = unique.subList(from, Math.min(from + BULK_CHUNK, unique.size()));
+            Set<Integer> applicants = new LinkedHashSet<>();
+            for (Decision d : srepo.findDecisions(chunk)) {
+                outcomes.put(d.getApplicationID(), status.equals(d.getApplicationStatus()) ? Outcome.UNCHANGED : Outcome.UPDATED);
+                previous.merge(d.getApplicationStatus(), 1L, Long::sum);
+                if (d.getUserID() != null) {
+                    applicants.add(d.getUserID());
+                }
+            }
+            srepo.updateStatus(chunk, status);
+            // like approveApplication, approving (again) makes sure the applicant is a SELLER
+            if (APPROVED.equals(status)) {
+                userv.setRoles(applicants, "SELLER");
+            }
+        }
+        previous.forEach((from, n) -> counts.adjustAfterCommit(from, status, n));
+
+        List<ApplicationDecisionReport.Result> results = new ArrayList<>(unique.size());
+        int updated = 0, unchanged = 0, notFound = 0;
+        for (Integer id : unique) {
+            Outcome outcome = outcomes.getOrDefault(id, Outcome.NOT_FOUND);
+            switch (outcome) {
+                case UPDATED -> updated++;
+                case UNCHANGED -> unchanged++;
+                case NOT_FOUND -> notFound++;
+            }
+            results.add(new ApplicationDecisionReport.Result(id, outcome));
+        }
+        return new ApplicationDecisionReport(status, updated, unchanged, notFound, results);
+    }
+
     // UPDATE
     public sellerapplicationEntity updateSellerApplication(Integer id, sellerapplicationEntity updatedApp) {
         Optional<sellerapplicationEntity> existing = srepo.findById(id);
         if (existing.isPresent()) {
             sellerapplicationEntity app = existing.get();
+            String before = app.getApplicationStatus();
             app.setApplicationStatus(updatedApp.getApplicationStatus());
             app.setApplicationDate(updatedApp.getApplicationDate());
             if (updatedApp.getUser() != null) {
                 app.setUser(updatedApp.getUser());
             }
-            return srepo.save(app);
+            sellerapplicationEntity saved = srepo.save(app);
+            counts.adjustAfterCommit(before, saved.getApplicationStatus());
+            return saved;
         }
         return null;
     }
 
     // DELETE
     public String deleteSellerApplication(Integer id) {
-        if (srepo.existsById(id)) {
+        Optional<sellerapplicationEntity> existing = srepo.findById(id);
+        if (existing.isPresent()) {
             srepo.deleteById(id);
+            counts.adjustAfterCommit(existing.get().getApplicationStatus(), null);
             return "Seller application with ID " + id + " deleted successfully.";
         }
         return "Seller application with ID " + id + " does not exist.";
@@ -1,11 +1,24 @@
 package com.appdevg6.error404.boost.service;
 
+import com.appdevg6.error404.boost.config.CacheConfig;
+import com.appdevg6.error404.boost.dto.UserCredentials;
 import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.repository.ProductRatingRepository;
+import com.appdevg6.error404.boost.repository.RecommendationRepository;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.repository.sellerapplicationRepository;
 import com.appdevg6.error404.boost.repository.userRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +28,30 @@ public class userService {
     @Autowired
     private userRepository urepo;
 
+    @Autowired
+    private productRepository prepo;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RecommendationRepository recommendationRepo;
+
+    @Autowired
+    private ProductRatingRepository ratingRepo;
+
+    @Autowired
+    private sellerapplicationRepository srepo;
+
+    @Autowired
+    private SellerApplicationCounts applicationCounts;
+
     // CREATE
     public userEntity createUser(userEntity user) {
         if (user.getPassword() != null) {
@@ -31,13 +65,31 @@ public class userService {
         return urepo.findAll();
     }
 
-    // READ (By ID)
+    // READ (By ID) - cached; evicted by updateUser and after every committed UserChangedEvent
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", unless = "#result == null")
     public Optional<userEntity> getUserById(Integer id) {
         return urepo.findById(id);
     }
 
+    // READ (By Email)
+    public Optional<userEntity> getUserByEmail(String email) {
+        return urepo.findByEmail(email);
+    }
+
+    // LOGIN - checks the password against the credentials projection and only
+    // loads the full user once the password matches
+    public Optional<userEntity> authenticate(String email, String rawPassword) {
+        Optional<UserCredentials> creds = urepo.findCredentialsByEmail(email);
+        if (creds.isEmpty() || creds.get().getPassword() == null
+                || !passwordEncoder.matches(rawPassword, creds.get().getPassword())) {
+            return Optional.empty();
+        }
+        return urepo.findById(creds.get().getUserID());
+    }
+
     // UPDATE
     @SuppressWarnings("finally")
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public userEntity updateUser(Integer id, userEntity updatedUser) {
         Optional<userEntity> opt = urepo.findById(id);
         if (opt.isPresent()) {
@@ -51,19 +103,87 @@ public class userService {
             if (updatedUser.getMiddlename() != null) user.setMiddlename(updatedUser.getMiddlename());
             if (updatedUser.getLastname() != null) user.setLastname(updatedUser.getLastname());
             if (updatedUser.getRole() != null) user.setRole(updatedUser.getRole());
-            return urepo.save(user);
+            userEntity saved = urepo.save(user);
+            events.publishEvent(new UserChangedEvent(id));
+            return saved;
         }
         return null;
     }
 
-    // DELETE
-    public String deleteUser(Integer id) {
-        if (urepo.existsById(id)) {
-            urepo.deleteById(id);
-            return "User deleted successfully";
-        } else {
+    // ROLE - e.g. BUYER -> SELLER when a seller application is approved; the cached
+    // user is evicted by evictCachedUser once the caller's transaction commits
+    public void setRole(Integer id, String role) {
+        urepo.findById(id).ifPresent(user -> {
+            user.setRole(role);
+            urepo.save(user);
+            events.publishEvent(new UserChangedEvent(id));
+        });
+    }
+
+    // ROLE (bulk) - one UPDATE for all given users; returns how many actually changed
+    public int setRoles(Collection<Integer> ids, String role) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int changed = urepo.updateRoles(ids, role);
+        if (changed > 0) {
+            for (Integer id : ids) {
+                events.publishEvent(new UserChangedEvent(id));
+            }
+        }
+        return changed;
+    }
+
+    // DELETE - set-based: a fixed number of bulk statements in one transaction, so
+    // nothing is loaded no matter how many products and reviews the user has.
+    // With reassignTo the products (and their reviews) move to that user instead.
+    // Caches, counts and read models follow only once the delete has committed.
+    @Transactional
+    public String deleteUser(Integer id, Integer reassignTo) {
+        if (!urepo.existsById(id)) {
             return "User with id " + id + " not found";
         }
+        if (reassignTo != null && (reassignTo.equals(id) || !urepo.existsById(reassignTo))) {
+            return "Cannot reassign products to user " + reassignTo;
+        }
+        boolean hadProducts = prepo.existsByUser_UserID(id);
+
+        // the user's own reviews leave the product rating totals first, then go
+        int ratingsTouched = ratingRepo.removeRatingsOfUser(id);
+        if (ratingsTouched > 0) {
+            ratingRepo.recomputeAveragesForUser(id);
+        }
+        recommendationRepo.deleteAllByUser(id);
+
+        if (reassignTo != null) {
+            prepo.reassignAllByUser(id, reassignTo);
+        } else if (hadProducts) {
+            recommendationRepo.deleteAllForProductsOfUser(id);
+            ratingRepo.deleteAllForProductsOfUser(id);
+            prepo.deleteAllByUser(id);
+        }
+
+        Optional<String> applicationStatus = srepo.findStatusByUser(id);
+        if (srepo.deleteAllByUser(id) > 0) {
+            applicationCounts.adjustAfterCommit(applicationStatus.orElse(null), null);
+        }
+        urepo.deleteRow(id);
+
+        if (hadProducts || ratingsTouched > 0) {
+            events.publishEvent(ProductChangedEvent.bulk());
+        }
+        if (reassignTo != null && hadProducts) {
+            events.publishEvent(new UserChangedEvent(reassignTo));
+        }
+        events.publishEvent(new UserChangedEvent(id));
+        return "User deleted successfully";
+    }
+
+    // CACHE - after commit, so a concurrent read cannot put the old user back into the cache
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictCachedUser(UserChangedEvent event) {
+        cacheManager.getCache(CacheConfig.USERS).evict(event.getUserId());
     }
+
     
 }
\ No newline at end of file
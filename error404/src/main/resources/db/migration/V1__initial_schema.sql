@@ -0,0 +1,74 @@
+-- Schema of the original application, as its ddl-auto=update created it. Existing
+-- databases are baselined at this version (spring.flyway.baseline-*) and only run
+-- the migrations after it; empty databases start here. Keep this file unchanged:
+-- later schema changes go into new migrations.
+
+create table product (
+    product_date date,
+    product_id integer not null auto_increment,
+    product_price float(53),
+    user_id integer,
+    product_category varchar(255),
+    product_description varchar(255),
+    product_image LONGTEXT,
+    product_name varchar(255),
+    product_status varchar(255),
+    primary key (product_id)
+) engine=InnoDB;
+
+create table recommendation (
+    date_generated date,
+    product_id integer not null,
+    rating integer,
+    recommendationid integer not null auto_increment,
+    user_id integer not null,
+    message TEXT,
+    primary key (recommendationid)
+) engine=InnoDB;
+
+create table seller_application (
+    application_date date,
+    application_id integer not null auto_increment,
+    user_id integer,
+    application_status varchar(255),
+    primary key (application_id)
+) engine=InnoDB;
+
+create table users (
+    userid integer not null auto_increment,
+    email varchar(255),
+    firstname varchar(255),
+    lastname varchar(255),
+    middlename varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    role varchar(255),
+    username varchar(255),
+    primary key (userid)
+) engine=InnoDB;
+
+alter table seller_application
+   add constraint UKd092kwlgbjqkwi6ak9q8f5wvq unique (user_id);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table product
+   add constraint FK47nyv78b35eaufr6aa96vep6n
+   foreign key (user_id)
+   references users (userid);
+
+alter table recommendation
+   add constraint FKc16er5fa5umwsa66isdvqbscc
+   foreign key (product_id)
+   references product (product_id);
+
+alter table recommendation
+   add constraint FKrwu8ddeus85k2p40wlvojuw1v
+   foreign key (user_id)
+   references users (userid);
+
+alter table seller_application
+   add constraint FK39kr34bch54l3n2tvlaxwbpfi
+   foreign key (user_id)
+   references users (userid);
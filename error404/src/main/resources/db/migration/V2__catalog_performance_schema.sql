@@ -0,0 +1,30 @@
+-- Columns, tables and indexes added on top of the original schema.
+
+-- image store reference instead of inline base64, and optimistic-lock versions (ETags)
+alter table product add column product_image_ref varchar(80);
+alter table product add column version bigint default 0 not null;
+alter table users add column version bigint default 0 not null;
+
+-- per-product rating totals, kept up to date with the reviews
+create table product_rating (
+    product_id integer not null,
+    rating_avg float(53) not null,
+    rating_count bigint not null,
+    rating_sum bigint not null,
+    primary key (product_id)
+) engine=InnoDB;
+
+insert into product_rating (product_id, rating_count, rating_sum, rating_avg)
+select product_id, count(rating), sum(rating), avg(rating * 1.0) from recommendation
+where rating is not null group by product_id;
+
+create index idx_product_rating_avg
+   on product_rating (rating_avg, rating_count);
+
+-- seller pages: one seller's products in productID order
+create index idx_product_user
+   on product (user_id, product_id);
+
+-- admin review queue: filter by status, page by (date, ID)
+create index idx_seller_application_queue
+   on seller_application (application_status, application_date, application_id);
@@ -0,0 +1,13 @@
+-- Indexes for the columns the read paths filter on. product.user_ID and
+-- seller_application.application_status are already covered by idx_product_user and
+-- idx_seller_application_queue from V2.
+
+-- getProductPage / search by category, keyset on product_ID
+create index idx_product_category on product (product_category, product_id);
+
+create index idx_product_status on product (product_status);
+
+-- a user's reviews, and the reviews of a product (also used by the foreign keys)
+create index idx_recommendation_user on recommendation (user_id);
+
+create index idx_recommendation_product on recommendation (product_id);
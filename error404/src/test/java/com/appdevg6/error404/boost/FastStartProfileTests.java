@@ -0,0 +1,47 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// The fast-start profile makes beans lazy, but the schema (Hibernate validation) and
+// the scheduled jobs must still start with the application, and the catalog has to be
+// served on the first request.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("fast-start")
+class FastStartProfileTests {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void onlyNonCriticalBeansAreLazy() {
+        assertTrue(beanFactory.getBeanDefinition("productController").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("productSearchIndex").isLazyInit());
+        for (String name : beanFactory.getBeanNamesForType(EntityManagerFactory.class, true, false)) {
+            assertFalse(beanFactory.getBeanDefinition(name.replace("&", "")).isLazyInit(), name);
+        }
+        assertFalse(beanFactory.getBeanDefinition("sellerApplicationCounts").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("itemSimilarityEngine").isLazyInit());
+    }
+
+    @Test
+    void firstRequestServesTheCatalog() throws Exception {
+        mvc.perform(get("/products/getAllProducts")).andExpect(status().isOk());
+    }
+}
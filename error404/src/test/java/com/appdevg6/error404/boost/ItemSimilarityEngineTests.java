@@ -0,0 +1,153 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.appdevg6.error404.boost.dto.ScoredProduct;
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.entity.recommendationEntity;
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.service.ItemSimilarityEngine;
+import com.appdevg6.error404.boost.service.ProductChangedEvent;
+import com.appdevg6.error404.boost.service.RecommendationService;
+import com.appdevg6.error404.boost.service.productService;
+import com.appdevg6.error404.boost.service.userService;
+
+// Cosine scores and top-k neighbours on a small matrix worked out by hand, for a full
+// build and for an incremental refresh after one more rating:
+//
+//          u1  u2  u3           cos(A,B) = 1        cos(A,C) = 8/20 = 0.4
+//      A    4   2   -           cos(A,D) = 10/sqrt(520)  = 0.4385
+//      B    4   2   -           cos(C,D) = 4/sqrt(520)   = 0.1754
+//      C    2   -   4
+//      D    -   5   1
+@SpringBootTest(properties = {
+        "boost.recommendations.neighbours=2",
+        "boost.recommendations.initial-delay-ms=3600000", "boost.recommendations.refresh-interval-ms=3600000"})
+class ItemSimilarityEngineTests {
+
+    private static final double EPS = 1e-4;
+
+    @Autowired
+    private ItemSimilarityEngine engine;
+
+    @Autowired
+    private RecommendationService recommendations;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private userService userv;
+
+    private userEntity u1, u2, u3;
+    private int a, b, c, d;
+
+    @BeforeEach
+    void seed() {
+        u1 = user("u1");
+        u2 = user("u2");
+        u3 = user("u3");
+        a = product("A");
+        b = product("B");
+        c = product("C");
+        d = product("D");
+        rate(u1, a, 4);
+        rate(u1, b, 4);
+        rate(u1, c, 2);
+        rate(u2, a, 2);
+        rate(u2, b, 2);
+        rate(u2, d, 5);
+        rate(u3, c, 4);
+        rate(u3, d, 1);
+        engine.onProductsChanged(ProductChangedEvent.bulk());
+        engine.refresh();
+    }
+
+    @Test
+    void topNeighboursByCosine() {
+        List<ScoredProduct> similar = engine.similar(a, 10);
+        // k = 2: C (0.4) is dropped behind B and D
+        assertEquals(List.of(b, d), ids(similar));
+        assertEquals(1.0, similar.get(0).getScore(), EPS);
+        assertEquals(10 / Math.sqrt(520), similar.get(1).getScore(), EPS);
+
+        List<ScoredProduct> ofC = engine.similar(c, 10);
+        assertEquals(List.of(a, b), ids(ofC).stream().sorted().toList());
+        assertEquals(0.4, ofC.get(0).getScore(), EPS);
+        assertEquals(0.4, ofC.get(1).getScore(), EPS);
+
+        List<ScoredProduct> ofD = engine.similar(d, 1);
+        assertEquals(1, ofD.size());
+        assertEquals(10 / Math.sqrt(520), ofD.get(0).getScore(), EPS);
+    }
+
+    @Test
+    void incrementalRefreshMatchesAFullRebuild() {
+        // u3 rates A: A = (4, 2, 5), so cos(A,C) = 28/30 and cos(A,B) = 20/30
+        rate(u3, a, 5);
+        engine.refresh();
+
+        List<ScoredProduct> similar = engine.similar(a, 10);
+        assertEquals(List.of(c, b), ids(similar));
+        assertEquals(28 / 30.0, similar.get(0).getScore(), EPS);
+        assertEquals(20 / 30.0, similar.get(1).getScore(), EPS);
+        // B was not rated, but its similarity to A moved with A
+        List<ScoredProduct> ofB = engine.similar(b, 10);
+        assertEquals(List.of(a, d), ids(ofB));
+        assertEquals(20 / 30.0, ofB.get(0).getScore(), EPS);
+
+        String incremental = describe();
+        engine.onProductsChanged(ProductChangedEvent.bulk());
+        engine.refresh();
+        assertEquals(describe(), incremental);
+    }
+
+    private String describe() {
+        return List.of(a, b, c, d).stream()
+                .map(id -> id + ":" + engine.similar(id, 10).stream()
+                        .map(s -> s.getProductID() + "=" + String.format("%.5f", s.getScore()))
+                        .collect(Collectors.joining(",")))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static List<Integer> ids(List<ScoredProduct> scored) {
+        return scored.stream().map(ScoredProduct::getProductID).toList();
+    }
+
+    private userEntity user(String name) {
+        userEntity user = new userEntity();
+        user.setUsername(name);
+        user.setEmail(name + "-" + System.nanoTime() + "@boost.test");
+        user.setRole("BUYER");
+        return userv.createUser(user);
+    }
+
+    private int product(String name) {
+        productEntity product = new productEntity();
+        product.setProductName(name);
+        product.setProductCategory("Books");
+        product.setProductPrice(10);
+        product.setProductStatus("APPROVED");
+        return pserv.createProduct(product).getProductID();
+    }
+
+    private void rate(userEntity user, int productId, int rating) {
+        productEntity product = new productEntity();
+        product.setProductID(productId);
+        recommendationEntity r = new recommendationEntity();
+        r.setUser(user);
+        r.setProduct(product);
+        r.setRating(rating);
+        r.setDateGenerated(LocalDate.now());
+        recommendations.create(r);
+    }
+}
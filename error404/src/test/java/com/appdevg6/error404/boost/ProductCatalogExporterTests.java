@@ -0,0 +1,163 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.service.ProductCatalogExporter;
+import com.appdevg6.error404.boost.service.ProductCatalogExporter.Format;
+import com.appdevg6.error404.boost.service.productService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// The streamed export: one JSON object per line or RFC 4180 CSV, every product exactly
+// once in productID order, and images only ever as a link to the image store - never
+// the stored bytes, and never a legacy inline data URL.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductCatalogExporterTests {
+
+    private static final String IMAGE = "data:image/png;base64,iVBORw0KGgo=";
+
+    @Autowired
+    private ProductCatalogExporter exporter;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private productRepository prepo;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MockMvc mvc;
+
+    private String tag;
+    private int withImage, plain, legacy;
+    private String ref;
+
+    @BeforeEach
+    void seed() {
+        tag = "exp" + System.nanoTime();
+        withImage = create(tag + " poster", "Big, \"glossy\"\nposter", IMAGE);
+        ref = prepo.findById(withImage).get().getProductImageRef();
+        plain = create(tag + " mug", null, null);
+        // a row the image migration has not reached yet: the base64 is still in the table
+        jdbc.update("insert into product (product_name, product_category, product_price, product_status, product_image, version) "
+                + "values (?, 'Art', 1, 'APPROVED', ?, 0)", tag + " legacy", IMAGE);
+        legacy = jdbc.queryForObject("select product_id from product where product_name = ?", Integer.class, tag + " legacy");
+    }
+
+    @Test
+    void ndjsonHasOneObjectPerProduct() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(out, Format.NDJSON);
+        String text = out.toString(StandardCharsets.UTF_8);
+
+        assertTrue(text.endsWith("\n"));
+        String[] lines = text.split("\n");
+        assertEquals(prepo.count(), written);
+        assertEquals(written, lines.length);
+        int previous = 0;
+        List<JsonNode> ours = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = mapper.readTree(line);
+            assertTrue(node.get("productID").asInt() > previous);
+            previous = node.get("productID").asInt();
+            if (node.get("productName").asText().startsWith(tag)) {
+                ours.add(node);
+            }
+        }
+        assertFalse(text.contains("base64"));
+
+        assertEquals(3, ours.size());
+        JsonNode poster = ours.get(0);
+        assertEquals(withImage, poster.get("productID").asInt());
+        assertEquals("Big, \"glossy\"\nposter", poster.get("productDescription").asText());
+        assertEquals(12.5, poster.get("productPrice").asDouble());
+        assertEquals("2024-03-01", poster.get("productDate").asText());
+        assertEquals("/products/images/" + ref, poster.get("productImageUrl").asText());
+        assertFalse(poster.has("productImage"));
+        assertTrue(ours.get(1).get("productImageUrl").isNull());
+        assertEquals(legacy, ours.get(2).get("productID").asInt());
+        assertTrue(ours.get(2).get("productImageUrl").isNull());
+    }
+
+    @Test
+    void csvQuotesOnlyWhatNeedsIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(out, Format.CSV);
+        String text = out.toString(StandardCharsets.UTF_8);
+
+        assertEquals(prepo.count(), written);
+        assertTrue(text.startsWith("productID,productName,productDescription,productPrice,"
+                + "productCategory,productStatus,productDate,sellerID,productImageUrl\r\n"));
+        assertTrue(text.contains("\r\n" + withImage + "," + tag + " poster,\"Big, \"\"glossy\"\"\nposter\",12.5,"
+                + "Art,APPROVED,2024-03-01,,/products/images/" + ref + "\r\n"));
+        assertTrue(text.contains("\r\n" + plain + "," + tag + " mug,,12.5,Art,APPROVED,2024-03-01,,\r\n"));
+        assertTrue(text.contains("\r\n" + legacy + "," + tag + " legacy,,1.0,Art,APPROVED,,,\r\n"));
+        assertFalse(text.contains("base64"));
+    }
+
+    @Test
+    void gzipIsUsedWhenAccepted() throws Exception {
+        MvcResult started = mvc.perform(get("/products/export").param("format", "csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+           .andExpect(request().asyncStarted())
+           .andReturn();
+        byte[] body = mvc.perform(asyncDispatch(started))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+           .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products.csv\""))
+           .andReturn().getResponse().getContentAsByteArray();
+
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertTrue(text.startsWith("productID,"));
+        assertTrue(text.contains("\r\n" + plain + "," + tag + " mug,"));
+    }
+
+    private int create(String name, String description, String image) {
+        productEntity product = new productEntity();
+        product.setProductName(name);
+        product.setProductDescription(description);
+        product.setProductCategory("Art");
+        product.setProductPrice(12.5);
+        product.setProductStatus("APPROVED");
+        product.setProductDate(LocalDate.of(2024, 3, 1));
+        product.setProductImage(image);
+        return pserv.createProduct(product).getProductID();
+    }
+}
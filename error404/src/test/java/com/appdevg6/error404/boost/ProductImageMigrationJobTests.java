@@ -0,0 +1,80 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appdevg6.error404.boost.service.ProductImageMigrationJob;
+import com.appdevg6.error404.boost.service.ProductImageStore;
+
+// The startup migration moves inline base64 images into the image store across
+// several batches, shares one file between identical images, leaves undecodable and
+// non-inline images where they are, and finds nothing left to do on a second run.
+@SpringBootTest(properties = "boost.images.migration-batch-size=2")
+class ProductImageMigrationJobTests {
+
+    private static final String PNG = "data:image/png;base64,iVBORw0KGgo=";
+    private static final String GIF = "data:image/gif;base64,R0lGODlh";
+
+    @Autowired
+    private ProductImageMigrationJob job;
+
+    @Autowired
+    private ProductImageStore imageStore;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void inlineImagesMoveToTheStore() {
+        // whatever earlier tests left inline goes first, so the counts below are ours
+        job.migrate();
+
+        int first = insert(PNG);
+        int second = insert(PNG);
+        int gif = insert(GIF);
+        int broken = insert("data:image/png;base64,AAAAA");
+        int external = insert("https://cdn.example.com/poster.png");
+
+        assertEquals(3, job.migrate());
+
+        Map<String, Object> a = row(first);
+        Map<String, Object> b = row(second);
+        assertNull(a.get("product_image"));
+        assertEquals(a.get("product_image_ref"), b.get("product_image_ref"));
+        assertEquals(1L, ((Number) a.get("version")).longValue());
+        String ref = (String) a.get("product_image_ref");
+        assertNotNull(imageStore.resolve(ref));
+        assertEquals("png", ref.substring(ref.indexOf('.') + 1));
+        assertEquals(ref.substring(0, ref.indexOf('.')), ProductImageStore.hashOf(ref));
+        String gifRef = (String) row(gif).get("product_image_ref");
+        assertEquals("gif", gifRef.substring(gifRef.indexOf('.') + 1));
+
+        assertEquals("data:image/png;base64,AAAAA", row(broken).get("product_image"));
+        assertNull(row(broken).get("product_image_ref"));
+        assertEquals("https://cdn.example.com/poster.png", row(external).get("product_image"));
+
+        // re-running is safe: only the undecodable image still matches, and is skipped again
+        assertEquals(0, job.migrate());
+        assertTrue(Files.isRegularFile(imageStore.resolve(ref)));
+    }
+
+    private int insert(String image) {
+        jdbc.update("insert into product (product_name, product_price, product_status, product_image, version) values (?, 0, 'APPROVED', ?, 0)",
+                "Poster", image);
+        return jdbc.queryForObject("select max(product_id) from product", Integer.class);
+    }
+
+    private Map<String, Object> row(int id) {
+        return jdbc.queryForMap("select product_image, product_image_ref, version from product where product_id = ?", id);
+    }
+}
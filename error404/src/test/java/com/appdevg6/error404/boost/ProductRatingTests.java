@@ -0,0 +1,54 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.repository.ProductRatingRepository;
+import com.appdevg6.error404.boost.service.RecommendationService;
+import com.appdevg6.error404.boost.service.productService;
+
+// A product's rating totals go with the product, but only once its delete has
+// committed: a rolled-back delete keeps both.
+@SpringBootTest
+class ProductRatingTests {
+
+    @Autowired
+    private RecommendationService recommendations;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private ProductRatingRepository ratingRepo;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Test
+    void totalsAreDroppedWhenTheDeleteCommits() {
+        productEntity product = new productEntity();
+        product.setProductName("Rated");
+        product.setProductCategory("Books");
+        product.setProductPrice(10);
+        product.setProductStatus("APPROVED");
+        int id = pserv.createProduct(product).getProductID();
+        // totals only: a product with recommendations cannot be deleted (foreign key)
+        tx.executeWithoutResult(status -> ratingRepo.addRating(id, 4));
+
+        tx.executeWithoutResult(status -> {
+            pserv.deleteProduct(id);
+            status.setRollbackOnly();
+        });
+        assertTrue(pserv.getProductById(id).isPresent());
+        assertEquals(1, recommendations.getRating(id).get().getRatingCount());
+
+        pserv.deleteProduct(id);
+        assertTrue(recommendations.getRating(id).isEmpty());
+    }
+}
@@ -0,0 +1,163 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.appdevg6.error404.boost.dto.ProductSearchResult;
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.service.ProductChangedEvent;
+import com.appdevg6.error404.boost.service.ProductSearchIndex;
+import com.appdevg6.error404.boost.service.productService;
+
+// Search over product name, description and category: how text is split into words,
+// how hits are ordered, that deleted and renamed products drop out, and that writes
+// made while a rebuild is loading end up in the rebuilt index. Every test tags its
+// products with its own word so other data in the database does not interfere.
+@SpringBootTest
+class ProductSearchIndexTests {
+
+    @Autowired
+    private ProductSearchIndex index;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private productRepository prepo;
+
+    private String tag;
+
+    @BeforeEach
+    void tag() {
+        tag = "tag" + System.nanoTime();
+    }
+
+    @Test
+    void wordsAreLowerCasedLetterAndDigitRuns() {
+        int router = create("Wi-Fi Router X200 " + tag, "Dual-band, 5GHz!", "Networking");
+
+        assertEquals(List.of(router), ids(tag + " WI fi"));
+        assertEquals(List.of(router), ids(tag + " x200"));
+        assertEquals(List.of(router), ids(tag + " 5ghz band"));
+        assertEquals(List.of(router), ids(tag + " networking"));
+        // words match as prefixes, but not from the middle of a term
+        assertEquals(List.of(router), ids(tag + " rout"));
+        assertEquals(List.of(), ids(tag + " outer"));
+        // every word has to match
+        assertEquals(List.of(), ids(tag + " router cable"));
+        // nothing to search for
+        assertEquals(0, index.search(" -- !! ", null, null).getTotal());
+    }
+
+    @Test
+    void exactBeatsPrefixAndNameBeatsDescription() {
+        int inDescription = create(tag + " light", "a small lamp", "Home");
+        int prefix = create(tag + " lampshade", null, "Home");
+        int exact = create(tag + " lamp", null, "Home");
+        int other = create(tag + " chair", null, "Furniture");
+
+        assertEquals(List.of(exact, prefix, inDescription), ids(tag + " lamp"));
+        // the limit cuts the hits, not the total
+        ProductSearchResult all = index.search(tag, null, 2);
+        assertEquals(4, all.getTotal());
+        assertEquals(2, all.getItems().size());
+        // the category filter narrows hits but facets count every match
+        ProductSearchResult furniture = index.search(tag, "furniture", null);
+        assertEquals(1, furniture.getTotal());
+        assertEquals(other, furniture.getItems().get(0).getProductID());
+        assertEquals(Map.of("Home", 3, "Furniture", 1), furniture.getCategories());
+    }
+
+    @Test
+    void deletedAndRenamedProductsDropOut() {
+        int keep = create(tag + " teapot", null, "Kitchen");
+        int gone = create(tag + " teacup", null, "Kitchen");
+        int renamed = create(tag + " teaspoon", null, "Kitchen");
+        assertEquals(3, index.search(tag + " tea", null, null).getTotal());
+
+        pserv.deleteProduct(gone);
+        productEntity spoon = prepo.findById(renamed).get();
+        spoon.setProductName(tag + " ladle");
+        pserv.updateProduct(renamed, spoon);
+
+        assertEquals(List.of(keep), ids(tag + " tea"));
+        assertEquals(List.of(), ids(tag + " teacup"));
+        assertEquals(List.of(renamed), ids(tag + " ladle"));
+    }
+
+    @Test
+    void writesDuringARebuildAreReplayed() {
+        int kept = save(tag + " violin");
+        int deleted = save(tag + " viola");
+
+        // a private index whose rebuild sees two writes commit after it read its last page:
+        // the loaded rows still have the viola and not the cello, only the replay fixes that
+        ProductSearchIndex rebuilt = new ProductSearchIndex();
+        AtomicBoolean interleaved = new AtomicBoolean();
+        productRepository repo = (productRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {productRepository.class}, (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(prepo, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                    if (method.getName().equals("findSummariesAfter") && ((List<?>) result).isEmpty()
+                            && interleaved.compareAndSet(false, true)) {
+                        productEntity cello = new productEntity();
+                        cello.setProductName(tag + " cello");
+                        cello.setProductStatus("APPROVED");
+                        rebuilt.onProductChanged(ProductChangedEvent.saved(prepo.save(cello)));
+                        prepo.deleteById(deleted);
+                        rebuilt.onProductChanged(ProductChangedEvent.deleted(deleted));
+                    }
+                    return result;
+                });
+        ReflectionTestUtils.setField(rebuilt, "prepo", repo);
+        ReflectionTestUtils.setField(rebuilt, "batchSize", 2);
+
+        rebuilt.rebuild();
+
+        assertTrue(interleaved.get());
+        ProductSearchResult result = rebuilt.search(tag, null, null);
+        assertEquals(2, result.getTotal());
+        assertEquals(kept, rebuilt.search(tag + " violin", null, null).getItems().get(0).getProductID());
+        assertEquals(0, rebuilt.search(tag + " viola", null, null).getTotal());
+        assertEquals(1, rebuilt.search(tag + " cello", null, null).getTotal());
+        assertEquals(prepo.count(), rebuilt.size());
+    }
+
+    private List<Integer> ids(String query) {
+        return index.search(query, null, null).getItems().stream().map(ProductSearchResult.Hit::getProductID).toList();
+    }
+
+    private int create(String name, String description, String category) {
+        productEntity product = new productEntity();
+        product.setProductName(name);
+        product.setProductDescription(description);
+        product.setProductCategory(category);
+        product.setProductStatus("APPROVED");
+        return pserv.createProduct(product).getProductID();
+    }
+
+    // straight to the database, without the events that keep the shared index current
+    private int save(String name) {
+        productEntity product = new productEntity();
+        product.setProductName(name);
+        product.setProductStatus("APPROVED");
+        return prepo.save(product).getProductID();
+    }
+}
@@ -0,0 +1,98 @@
+package com.appdevg6.error404.boost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+// Runs the Flyway migrations the way production does (ddl-auto=validate, so the
+// context only starts if the migrated schema matches the entities) against an
+// empty H2 database in MySQL mode, and checks that a database of the original
+// application (ddl-auto=update, no history table) is baselined at V1 and migrated by
+// the later migrations to the same schema.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+class SchemaMigrationTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void emptyDatabaseIsMigratedToTheMappedSchema() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertEquals(List.of("1", "2", "3"), versions(applied));
+        assertEquals(0, flyway.info().pending().length);
+
+        List<String> indexes = jdbc.queryForList(
+                "select distinct index_name from information_schema.indexes where table_schema = 'public'", String.class);
+        for (String index : List.of("idx_product_user", "idx_product_category", "idx_product_status",
+                "idx_recommendation_user", "idx_recommendation_product", "idx_seller_application_queue",
+                "idx_product_rating_avg")) {
+            assertTrue(indexes.contains(index), "missing index " + index + " in " + indexes);
+        }
+    }
+
+    @Test
+    void originalDatabaseIsBaselinedAndMigratedToTheMappedSchema() {
+        DriverManagerDataSource legacy = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        // the original application's tables, as its ddl-auto=update created them (no history table), with data
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__initial_schema.sql")).execute(legacy);
+        JdbcTemplate old = new JdbcTemplate(legacy);
+        old.update("insert into users (userid, username, email, role) values (1, 'seller', 'seller@boost.test', 'SELLER')");
+        old.update("insert into product (product_id, product_name, user_id) values (1, 'Lamp', 1)");
+        old.update("insert into recommendation (product_id, user_id, rating) values (1, 1, 4), (1, 1, 5)");
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(legacy)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(2, result.migrationsExecuted);
+        assertEquals("3", result.targetSchemaVersion);
+        // same tables, columns and indexes as a database migrated from scratch, which the
+        // context above validated against the entities
+        assertEquals(describe(jdbc), describe(old));
+        assertEquals(0L, old.queryForObject("select version from product where product_id = 1", Long.class));
+        assertEquals(2L, old.queryForObject("select rating_count from product_rating where product_id = 1", Long.class));
+    }
+
+    private static List<String> describe(JdbcTemplate db) {
+        List<String> schema = new ArrayList<>(db.queryForList(
+                "select table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable "
+                        + "from information_schema.columns where table_schema = 'public' "
+                        + "and table_name <> 'flyway_schema_history'", String.class));
+        schema.addAll(db.queryForList(
+                "select distinct table_name || ' ' || index_name from information_schema.indexes "
+                        + "where table_schema = 'public' and index_name like 'idx_%'", String.class));
+        Collections.sort(schema);
+        return schema;
+    }
+
+    private static List<String> versions(MigrationInfo[] migrations) {
+        return Arrays.stream(migrations).map(m -> m.getVersion().getVersion()).toList();
+    }
+}
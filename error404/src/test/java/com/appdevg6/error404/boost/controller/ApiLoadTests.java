@@ -0,0 +1,383 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.appdevg6.error404.boost.service.ProductCatalogSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// HTTP load test: boots the app on a random port against H2, seeds it and drives a
+// weighted mix of real endpoints from concurrent clients. Logs throughput and
+// p50/p95/p99 per endpoint, writes target/load-test-report.json and fails when an
+// endpoint breaks its p99 SLO or the error or shed (503/429) rate is too high.
+// All clients share one address, so the per-address login budget is off; a full
+// password-hashing pool still sheds logins with 429.
+// Excluded from the normal build; run with: mvn -Pload-test test [-Dboost.load.clients=32 ...]
+// load-compare.sh runs it once per execution mode to compare them.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"boost.recommendations.initial-delay-ms=3600000", "boost.login.rate.enabled=false"})
+class ApiLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiLoadTests.class);
+
+    private static final int USERS = 2000;
+    private static final int SELLERS = 100;
+    private static final int PRODUCTS = 2000;
+    private static final int RECOMMENDATIONS = 20000;
+    private static final int APPLICATIONS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private ProductCatalogSnapshot snapshot;
+
+    @Value("${boost.load.clients:16}")
+    private int clients;
+
+    @Value("${boost.load.warmup-seconds:5}")
+    private int warmupSeconds;
+
+    @Value("${boost.load.duration-seconds:20}")
+    private int durationSeconds;
+
+    // relative weights of the request mix
+    @Value("${boost.load.mix.login:20}")
+    private int loginWeight;
+
+    @Value("${boost.load.mix.all-products:20}")
+    private int allProductsWeight;
+
+    @Value("${boost.load.mix.product-recommendations:50}")
+    private int recommendationsWeight;
+
+    @Value("${boost.load.mix.seller-review:10}")
+    private int sellerReviewWeight;
+
+    // p99 SLOs in milliseconds (login includes a full-cost bcrypt check)
+    @Value("${boost.load.slo.login-p99-ms:3000}")
+    private long loginSlo;
+
+    @Value("${boost.load.slo.all-products-p99-ms:2000}")
+    private long allProductsSlo;
+
+    @Value("${boost.load.slo.product-recommendations-p99-ms:1000}")
+    private long recommendationsSlo;
+
+    @Value("${boost.load.slo.seller-review-p99-ms:1000}")
+    private long sellerReviewSlo;
+
+    @Value("${boost.load.max-error-rate:0.01}")
+    private double maxErrorRate;
+
+    // 503s from the DB admission gate and 429s from the login hashing pool are load
+    // shedding, not errors; latency percentiles
+    // cover admitted requests only
+    @Value("${boost.load.max-shed-rate:0.05}")
+    private double maxShedRate;
+
+    // false only reports (used by load-compare.sh)
+    @Value("${boost.load.enforce:true}")
+    private boolean enforce;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${boost.db.admission.enabled:true}")
+    private boolean admissionGate;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void endpointsMeetLatencySlos() throws Exception {
+        seed();
+        List<Endpoint> endpoints = List.of(
+                new Endpoint("POST /api/users/login", loginWeight, loginSlo, this::login),
+                new Endpoint("GET /products/getAllProducts", allProductsWeight, allProductsSlo,
+                        r -> get("/products/getAllProducts")),
+                new Endpoint("GET /recommendations/product/{id}", recommendationsWeight, recommendationsSlo,
+                        r -> get("/recommendations/product/" + (1 + r.nextInt(PRODUCTS)))),
+                new Endpoint("PUT /seller-applications/approve|reject/{id}", sellerReviewWeight, sellerReviewSlo,
+                        r -> put("/seller-applications/" + (r.nextBoolean() ? "approve/" : "reject/") + (1 + r.nextInt(APPLICATIONS)))));
+        int totalWeight = endpoints.stream().mapToInt(e -> e.weight).sum();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + durationSeconds * 1_000_000_000L;
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Recorder>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                Recorder recorder = new Recorder(endpoints.size());
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    int pick = random.nextInt(totalWeight);
+                    int e = 0;
+                    while (pick >= endpoints.get(e).weight) {
+                        pick -= endpoints.get(e++).weight;
+                    }
+                    int status;
+                    long retryAfterMillis = 0;
+                    try {
+                        HttpResponse<Void> response = http.send(endpoints.get(e).request.build(random), HttpResponse.BodyHandlers.discarding());
+                        status = response.statusCode();
+                        if (status == 503 || status == 429) {
+                            retryAfterMillis = response.headers().firstValueAsLong("Retry-After").orElse(1) * 1000;
+                        }
+                    } catch (java.io.IOException ex) {
+                        status = -1;
+                    }
+                    long done = System.nanoTime();
+                    if (now >= measureFrom) {
+                        recorder.record(e, done - now, status);
+                    }
+                    // well-behaved clients back off when shed
+                    if (retryAfterMillis > 0) {
+                        Thread.sleep(Math.min(retryAfterMillis, Math.max(0, (end - done) / 1_000_000)));
+                    }
+                }
+                return recorder;
+            }));
+        }
+        Recorder total = new Recorder(endpoints.size());
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        pool.shutdown();
+
+        List<String> breaches = new ArrayList<>();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("virtualThreads", virtualThreads);
+        report.put("admissionGate", admissionGate);
+        report.put("durationSeconds", durationSeconds);
+        long allRequests = 0;
+        long allErrors = 0;
+        long allShed = 0;
+        StringBuilder table = new StringBuilder(String.format("%-48s %8s %8s %8s %8s %8s %7s %7s%n",
+                "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "shed"));
+        for (int e = 0; e < endpoints.size(); e++) {
+            Endpoint endpoint = endpoints.get(e);
+            long[] latencies = total.latencies(e);
+            Arrays.sort(latencies);
+            double p50 = percentileMillis(latencies, 0.50);
+            double p95 = percentileMillis(latencies, 0.95);
+            double p99 = percentileMillis(latencies, 0.99);
+            double max = latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6;
+            double throughput = latencies.length / (double) durationSeconds;
+            allRequests += latencies.length + total.shed[e];
+            allErrors += total.errors[e];
+            allShed += total.shed[e];
+            table.append(String.format("%-48s %8.1f %8.1f %8.1f %8.1f %8.1f %7d %7d%n",
+                    endpoint.name, throughput, p50, p95, p99, max, total.errors[e], total.shed[e]));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("requests", latencies.length);
+            row.put("errors", total.errors[e]);
+            row.put("shed", total.shed[e]);
+            row.put("throughputPerSecond", throughput);
+            row.put("p50Ms", p50);
+            row.put("p95Ms", p95);
+            row.put("p99Ms", p99);
+            row.put("maxMs", max);
+            row.put("p99SloMs", endpoint.p99SloMs);
+            report.put(endpoint.name, row);
+            if (latencies.length > 0 && p99 > endpoint.p99SloMs) {
+                breaches.add(String.format("%s p99 %.1f ms > %d ms", endpoint.name, p99, endpoint.p99SloMs));
+            }
+        }
+        double errorRate = allRequests == 0 ? 1.0 : allErrors / (double) allRequests;
+        double shedRate = allRequests == 0 ? 0.0 : allShed / (double) allRequests;
+        table.append(String.format("total %.1f req/s, error rate %.4f, shed rate %.4f",
+                (allRequests - allShed) / (double) durationSeconds, errorRate, shedRate));
+        log.info("Load test: {} clients, {}s measured after {}s warm-up, {} threads, admission gate {}{}{}",
+                clients, durationSeconds, warmupSeconds, virtualThreads ? "virtual" : "platform",
+                admissionGate ? "on" : "off", System.lineSeparator(), table);
+        report.put("totalThroughputPerSecond", (allRequests - allShed) / (double) durationSeconds);
+        report.put("errorRate", errorRate);
+        report.put("shedRate", shedRate);
+        Files.createDirectories(Path.of("target"));
+        mapper.writerWithDefaultPrettyPrinter().writeValue(Path.of("target", "load-test-report.json").toFile(), report);
+
+        if (errorRate > maxErrorRate) {
+            breaches.add(String.format("error rate %.4f > %.4f", errorRate, maxErrorRate));
+        }
+        if (shedRate > maxShedRate) {
+            breaches.add(String.format("shed rate %.4f > %.4f", shedRate, maxShedRate));
+        }
+        if (enforce) {
+            assertTrue(breaches.isEmpty(), "SLO breached: " + breaches);
+        }
+    }
+
+    private void seed() {
+        // one real-cost hash shared by all users, so logins do production bcrypt work
+        String hash = passwordEncoder.encode("secret");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[] {"load" + i, "load" + i + "@boost.test", hash, "First" + i, i <= SELLERS ? "SELLER" : "BUYER"});
+        }
+        jdbc.batchUpdate("insert into users (username, email, password, firstname, role) values (?, ?, ?, ?, ?)", rows);
+        Integer firstUser = jdbc.queryForObject("select min(userID) from users where email like 'load%'", Integer.class);
+
+        rows.clear();
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[] {"Load item " + i, "Seeded for the load test", 1 + i % 500, "Category" + i % 8,
+                    "Available", firstUser + i % SELLERS});
+        }
+        jdbc.batchUpdate("insert into product (product_name, product_description, product_price, product_category, "
+                + "product_status, user_ID) values (?, ?, ?, ?, ?, ?)", rows);
+        Integer firstProduct = jdbc.queryForObject("select min(product_ID) from product", Integer.class);
+
+        rows.clear();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < RECOMMENDATIONS; i++) {
+            rows.add(new Object[] {firstUser + random.nextInt(USERS), firstProduct + random.nextInt(PRODUCTS),
+                    "Load review " + i, 1 + random.nextInt(5)});
+        }
+        jdbc.batchUpdate("insert into recommendation (user_ID, product_ID, message, rating) values (?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (int i = 0; i < APPLICATIONS; i++) {
+            rows.add(new Object[] {"Pending", firstUser + SELLERS + i});
+        }
+        jdbc.batchUpdate("insert into seller_application (application_status, user_id) values (?, ?)", rows);
+        // the rows bypassed the services, so no change event will refresh the catalog snapshot
+        snapshot.rebuild();
+    }
+
+    private HttpRequest login(ThreadLocalRandom random) {
+        String body = "{\"email\":\"load" + (1 + random.nextInt(USERS)) + "@boost.test\",\"password\":\"secret\"}";
+        return HttpRequest.newBuilder(uri("/api/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest put(String path) {
+        return HttpRequest.newBuilder(uri(path)).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private interface RequestFactory {
+        HttpRequest build(ThreadLocalRandom random);
+    }
+
+    private static final class Endpoint {
+        final String name;
+        final int weight;
+        final long p99SloMs;
+        final RequestFactory request;
+
+        Endpoint(String name, int weight, long p99SloMs, RequestFactory request) {
+            this.name = name;
+            this.weight = weight;
+            this.p99SloMs = p99SloMs;
+            this.request = request;
+        }
+    }
+
+    // Per-client latency samples (nanoseconds) of admitted requests, merged once the run is over
+    private static final class Recorder {
+        final long[][] samples;
+        final int[] counts;
+        final long[] errors;
+        final long[] shed;
+
+        Recorder(int endpoints) {
+            samples = new long[endpoints][1024];
+            counts = new int[endpoints];
+            errors = new long[endpoints];
+            shed = new long[endpoints];
+        }
+
+        void record(int endpoint, long nanos, int status) {
+            if (status == 503 || status == 429) {
+                shed[endpoint]++;
+                return;
+            }
+            if (status < 200 || status >= 300) {
+                errors[endpoint]++;
+            }
+            add(endpoint, nanos);
+        }
+
+        void add(int endpoint, long nanos) {
+            if (counts[endpoint] == samples[endpoint].length) {
+                samples[endpoint] = Arrays.copyOf(samples[endpoint], counts[endpoint] * 2);
+            }
+            samples[endpoint][counts[endpoint]++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            for (int e = 0; e < samples.length; e++) {
+                for (int i = 0; i < other.counts[e]; i++) {
+                    add(e, other.samples[e][i]);
+                }
+                errors[e] += other.errors[e];
+                shed[e] += other.shed[e];
+            }
+        }
+
+        long[] latencies(int endpoint) {
+            return Arrays.copyOf(samples[endpoint], counts[endpoint]);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.service.ProductCatalogSnapshot;
+import com.appdevg6.error404.boost.service.productService;
+
+// GET /products/getAllProducts from the snapshot: once a changed catalog is being
+// served, a client still holding the previous ETag must get the new body, not a 304.
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogSnapshotTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ProductCatalogSnapshot snapshot;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private productRepository prepo;
+
+    private String name;
+    private int id;
+
+    @BeforeEach
+    void seed() {
+        name = "snap" + System.nanoTime();
+        productEntity product = new productEntity();
+        product.setProductName(name);
+        product.setProductCategory("Toys");
+        product.setProductPrice(4);
+        product.setProductStatus("APPROVED");
+        id = pserv.createProduct(product).getProductID();
+        snapshot.rebuild();
+    }
+
+    @Test
+    void changedProductGetsANewETag() throws Exception {
+        String etag = fetch(name).getResponse().getHeader(HttpHeaders.ETAG);
+
+        productEntity product = prepo.findById(id).get();
+        product.setProductName(name + " renamed");
+        pserv.updateProduct(id, product);
+
+        // the rebuild runs in the background after commit
+        MvcResult renamed = fetch(name + " renamed");
+        assertNotEquals(etag, renamed.getResponse().getHeader(HttpHeaders.ETAG));
+        mvc.perform(get("/products/getAllProducts").header(HttpHeaders.IF_NONE_MATCH, etag))
+           .andExpect(status().isOk());
+        mvc.perform(get("/products/getAllProducts").header(HttpHeaders.IF_NONE_MATCH, renamed.getResponse().getHeader(HttpHeaders.ETAG)))
+           .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void tagFollowsTheBodyNotTheChangeEvents() throws Exception {
+        String etag = fetch(name).getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipEtag = mvc.perform(get("/products/getAllProducts").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+           .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+           .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, gzipEtag);
+
+        // a rebuild that sees new rows before (or without) the catalog version moving
+        productEntity product = prepo.findById(id).get();
+        product.setProductName(name + " unannounced");
+        prepo.save(product);
+        snapshot.rebuild();
+
+        mvc.perform(get("/products/getAllProducts").header(HttpHeaders.IF_NONE_MATCH, etag))
+           .andExpect(status().isOk());
+        mvc.perform(get("/products/getAllProducts").header(HttpHeaders.IF_NONE_MATCH, gzipEtag)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+           .andExpect(status().isOk());
+    }
+
+    // polls until the served snapshot contains the text
+    private MvcResult fetch(String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            MvcResult result = mvc.perform(get("/products/getAllProducts")).andExpect(status().isOk()).andReturn();
+            if (result.getResponse().getContentAsString().contains("\"" + text + "\"")) {
+                return result;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "snapshot never showed " + text);
+            Thread.sleep(20);
+        }
+    }
+}
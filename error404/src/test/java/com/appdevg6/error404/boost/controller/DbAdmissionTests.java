@@ -0,0 +1,76 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.config.DbAdmissionRejectedException;
+
+// The gate counts checked-out connections: while one transaction holds the only slot a
+// request gets 503 and a background caller gives up after its own bounded wait.
+@SpringBootTest(properties = {
+        "boost.db.admission.max-concurrent=1", "boost.db.admission.wait-ms=50",
+        "boost.db.admission.background-wait-ms=200", "boost.db.admission.retry-after-seconds=3"})
+@AutoConfigureMockMvc
+class DbAdmissionTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Test
+    void connectionHeldByATransactionKeepsOthersOut() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Integer> holder = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            // the transaction keeps its connection (and slot) between statements
+            int before = jdbc.queryForObject("select count(*) from product", Integer.class);
+            holding.countDown();
+            try {
+                done.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            // a nested statement on the same thread reuses the slot
+            return jdbc.queryForObject("select count(*) from product", Integer.class) - before;
+        }));
+        assertTrue(holding.await(10, TimeUnit.SECONDS));
+
+        mvc.perform(get("/products/getProductPage"))
+           .andExpect(status().isServiceUnavailable())
+           .andExpect(header().string("Retry-After", "3"));
+
+        long start = System.nanoTime();
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> jdbc.queryForObject("select count(*) from product", Integer.class));
+        assertTrue(NestedExceptionUtils.getRootCause(ex) instanceof DbAdmissionRejectedException
+                || ex instanceof DbAdmissionRejectedException, ex.toString());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "background wait should be bounded");
+
+        done.countDown();
+        assertEquals(0, holder.get(10, TimeUnit.SECONDS));
+        mvc.perform(get("/products/getProductPage")).andExpect(status().isOk());
+        assertTrue(jdbc.queryForObject("select count(*) from product", Integer.class) >= 0);
+    }
+}
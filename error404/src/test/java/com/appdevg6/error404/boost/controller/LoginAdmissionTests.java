@@ -0,0 +1,150 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.appdevg6.error404.boost.config.BoundedPasswordEncoder;
+import com.appdevg6.error404.boost.config.LoginAdmissionGate;
+import com.appdevg6.error404.boost.config.LoginAdmissionRejectedException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Login admission: attempts over the per-address or per-email budget get 429 before
+// any hashing, and a saturated hashing pool refuses login checks at once instead of
+// queueing, while hashing new passwords is never refused.
+@SpringBootTest(properties = {
+        "boost.login.rate.email.burst=3", "boost.login.rate.email.per-minute=1",
+        "boost.login.rate.ip.burst=5", "boost.login.rate.ip.per-minute=1"})
+@AutoConfigureMockMvc
+class LoginAdmissionTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void attemptsOverTheBudgetGetTooManyRequests() throws Exception {
+        String hash = new BCryptPasswordEncoder(4).encode("secret");
+        jdbc.update("insert into users (username, email, password, role) values (?, ?, ?, ?)", "ana", "ana@boost.test", hash, "BUYER");
+        jdbc.update("insert into users (username, email, password, role) values (?, ?, ?, ?)", "ben", "ben@boost.test", hash, "BUYER");
+
+        // the email's burst of 3, then 429 with a Retry-After
+        for (int i = 0; i < 3; i++) {
+            login("ana@boost.test", "wrong", "10.0.0.1").andExpect(status().isUnauthorized());
+        }
+        login("ana@boost.test", "wrong", "10.0.0.1").andExpect(status().isTooManyRequests());
+        // the right password from another address does not help once the account's budget is spent
+        login("ana@boost.test", "secret", "10.0.0.9")
+           .andExpect(status().isTooManyRequests())
+           .andExpect(header().exists("Retry-After"));
+
+        // 10.0.0.1 has used 4 of its 5 attempts: another account gets one more, then 429
+        login("ben@boost.test", "wrong", "10.0.0.1").andExpect(status().isUnauthorized());
+        login("ben@boost.test", "secret", "10.0.0.1").andExpect(status().isTooManyRequests());
+        // ben still has budget from another address
+        login("ben@boost.test", "secret", "10.0.0.2").andExpect(status().isOk());
+
+        assertEquals(2.0, registry.get("boost.login.rejected").tag("reason", "email-rate").counter().count());
+        assertEquals(1.0, registry.get("boost.login.rejected").tag("reason", "ip-rate").counter().count());
+    }
+
+    @Test
+    void saturatedHashingPoolRejectsAtOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                return raw.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(slow, 1, 1, 2, meters)) {
+            // one check on the only hashing thread, one in the queue of 1
+            Future<Boolean> running = callers.submit(() -> bounded.matches("a", "a"));
+            await(() -> meters.get("boost.login.hashing.active").gauge().value() == 1);
+            Future<Boolean> queued = callers.submit(() -> bounded.matches("b", "b"));
+            await(() -> meters.get("boost.login.hashing.queued").gauge().value() == 1);
+
+            long start = System.nanoTime();
+            LoginAdmissionRejectedException ex = assertThrows(LoginAdmissionRejectedException.class,
+                    () -> bounded.matches("c", "c"));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejection should not wait");
+            assertEquals(2, ex.getRetryAfterSeconds());
+            assertEquals(1.0, meters.get("boost.login.rejected").tag("reason", "hashing-busy").counter().count());
+            // hashing a new password (registration, password change) does not queue behind logins
+            assertEquals("d", bounded.encode("d"));
+
+            release.countDown();
+            assertTrue(running.get(10, TimeUnit.SECONDS));
+            assertTrue(queued.get(10, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void everyEmailHasItsOwnBudget() {
+        LoginAdmissionGate gate = new LoginAdmissionGate(true, 10_000, 1, 1, 1_000_000, 1, new SimpleMeterRegistry());
+        // one attempt each for 5000 accounts: none is charged for another's attempt
+        for (int i = 0; i < 5000; i++) {
+            gate.admit("user" + i + "@boost.test", "10.0.0.1");
+        }
+        // the same account, however it is typed, has used its budget
+        assertThrows(LoginAdmissionRejectedException.class, () -> gate.admit(" User7@Boost.test", "10.0.0.1"));
+    }
+
+    private ResultActions login(String email, String password, String address) throws Exception {
+        return mvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                }));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.service.userService;
+
+// Bulk import in batches of two rows: rows that fail validation are reported by number
+// while the rest are saved, and a row the database refuses fails alone, without its
+// batch or the batches around it. Product names carry a per-test tag.
+@SpringBootTest(properties = {"boost.products.import.batch-size=2", "boost.products.import.max-reported-errors=12"})
+@AutoConfigureMockMvc
+class ProductBulkImportTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private userService userv;
+
+    private int sellerId;
+    private String tag;
+
+    @BeforeEach
+    void seed() {
+        tag = "imp" + System.nanoTime();
+        userEntity seller = new userEntity();
+        seller.setUsername("seller");
+        seller.setEmail(tag + "@boost.test");
+        seller.setRole("SELLER");
+        sellerId = userv.createUser(seller).getUserID();
+    }
+
+    @Test
+    void ndjsonRowsAreSavedForTheSeller() throws Exception {
+        String body = row("a", "5") + "\n\n" + row("b", "0") + "\n" + row("c", "1.5") + "\n"
+                + "{\"productName\":\"" + tag + " d\",\"productCategory\":\"Books\",\"productPrice\":2,"
+                + "\"productDescription\":null,\"productDate\":\"2024-02-29\",\"productStatus\":\"Sold\"}";
+
+        ndjson(body).andExpect(status().isOk())
+           .andExpect(jsonPath("$.imported").value(4))
+           .andExpect(jsonPath("$.failed").value(0))
+           .andExpect(jsonPath("$.errors").isEmpty())
+           .andExpect(jsonPath("$.errorsTruncated").value(false));
+
+        List<Map<String, Object>> rows = saved();
+        assertEquals(4, rows.size());
+        for (Map<String, Object> r : rows) {
+            assertEquals(sellerId, ((Number) r.get("user_id")).intValue());
+        }
+        Map<String, Object> d = rows.get(3);
+        assertEquals("Sold", d.get("product_status"));
+        assertEquals("2024-02-29", d.get("product_date").toString());
+        assertEquals("Available", rows.get(0).get("product_status"));
+        assertEquals(1.5, ((Number) rows.get(2).get("product_price")).doubleValue());
+    }
+
+    @Test
+    void invalidRowsAreReportedAndTheRestSaved() throws Exception {
+        String body = String.join("\n",
+                row("ok1", "1"),
+                "{not json",
+                "[1, 2]",
+                "{\"productCategory\":\"Books\",\"productPrice\":1}",
+                "{\"productName\":\"" + tag + " x\",\"productPrice\":1}",
+                row("x", "cheap"),
+                row("x", "-1"),
+                "{\"productName\":\"" + tag + " x\",\"productCategory\":\"Books\",\"productPrice\":1,\"productDate\":\"29/02/2024\"}",
+                "{\"productName\":\"" + tag + " x\",\"productCategory\":\"Books\",\"productPrice\":1,\"productImage\":\"https://cdn.example.com/x.png\"}",
+                "{\"productName\":\"" + tag + " x\",\"productCategory\":\"Books\",\"productPrice\":1,\"productImage\":\"data:image/png;base64,AAAAA\"}",
+                "{\"productName\":\"" + tag + " " + "x".repeat(256) + "\",\"productCategory\":\"Books\",\"productPrice\":1}",
+                "{\"productName\":\"" + tag + " ok2\",\"productCategory\":\"Books\",\"productPrice\":1,\"productImage\":\"data:image/png;base64,iVBORw0KGgo=\"}");
+
+        ndjson(body).andExpect(status().isOk())
+           .andExpect(jsonPath("$.imported").value(2))
+           .andExpect(jsonPath("$.failed").value(10))
+           .andExpect(jsonPath("$.errors.length()").value(10))
+           .andExpect(jsonPath("$.errors[0].row").value(2))
+           .andExpect(jsonPath("$.errors[0].message").value(startsWith("invalid JSON")))
+           .andExpect(jsonPath("$.errors[1].message").value("expected a JSON object"))
+           .andExpect(jsonPath("$.errors[2].message").value("productName is required"))
+           .andExpect(jsonPath("$.errors[3].message").value("productCategory is required"))
+           .andExpect(jsonPath("$.errors[4].message").value("productPrice must be a number"))
+           .andExpect(jsonPath("$.errors[5].message").value("productPrice must be zero or more"))
+           .andExpect(jsonPath("$.errors[6].message").value("productDate must be yyyy-MM-dd"))
+           .andExpect(jsonPath("$.errors[7].message").value("productImage must be a base64 data URL"))
+           .andExpect(jsonPath("$.errors[8].message").value("productImage is not valid base64"))
+           .andExpect(jsonPath("$.errors[9].row").value(11))
+           .andExpect(jsonPath("$.errors[9].message").value("text fields are limited to 255 characters"));
+
+        List<Map<String, Object>> rows = saved();
+        assertEquals(2, rows.size());
+        assertEquals(tag + " ok1", rows.get(0).get("product_name"));
+        assertNotNull(rows.get(1).get("product_image_ref"));
+    }
+
+    @Test
+    void csvQuotingAndColumnCounts() throws Exception {
+        String body = "productName,productCategory,productPrice,productDescription\r\n"
+                + tag + " plain,Books,3,\r\n"
+                + "\"" + tag + " quoted, with comma\",Books,4,\"two\nlines and \"\"quotes\"\"\"\r\n"
+                + tag + " short,Books\r\n"
+                + "\r\n"
+                + tag + " last,Books,5,end";
+
+        csv(body).andExpect(status().isOk())
+           .andExpect(jsonPath("$.imported").value(3))
+           .andExpect(jsonPath("$.failed").value(1))
+           .andExpect(jsonPath("$.errors[0].row").value(3))
+           .andExpect(jsonPath("$.errors[0].message").value("expected 4 columns but found 2"));
+
+        List<Map<String, Object>> rows = saved();
+        assertEquals(3, rows.size());
+        assertNull(rows.get(0).get("product_description"));
+        assertEquals(tag + " quoted, with comma", rows.get(1).get("product_name"));
+        assertEquals("two\nlines and \"quotes\"", rows.get(1).get("product_description"));
+        assertEquals("end", rows.get(2).get("product_description"));
+    }
+
+    @Test
+    void onlyTheRowTheDatabaseRefusesFails() throws Exception {
+        // the database (not the validation) refuses one product: its batch is retried row by row
+        jdbc.execute("alter table product add constraint chk_" + tag + " check (product_name <> '" + tag + " refused')");
+        try {
+            String body = String.join("\n", row("1", "1"), row("2", "1"), row("3", "1"), row("refused", "1"), row("5", "1"));
+
+            ndjson(body).andExpect(status().isOk())
+               .andExpect(jsonPath("$.imported").value(4))
+               .andExpect(jsonPath("$.failed").value(1))
+               .andExpect(jsonPath("$.errors.length()").value(1))
+               .andExpect(jsonPath("$.errors[0].row").value(4))
+               // nothing from the driver (constraint names, SQL) reaches the client
+               .andExpect(jsonPath("$.errors[0].message").value("not saved: the database refused this row"));
+        } finally {
+            jdbc.execute("alter table product drop constraint chk_" + tag);
+        }
+        assertEquals(List.of(tag + " 1", tag + " 2", tag + " 3", tag + " 5"),
+                saved().stream().map(r -> r.get("product_name")).toList());
+    }
+
+    @Test
+    void onlyTheFirstErrorsAreListed() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 15; i++) {
+            body.append(row("bad" + i, "free")).append('\n');
+        }
+        body.append(row("good", "1"));
+
+        ndjson(body.toString()).andExpect(status().isOk())
+           .andExpect(jsonPath("$.imported").value(1))
+           .andExpect(jsonPath("$.failed").value(15))
+           .andExpect(jsonPath("$.errors.length()").value(12))
+           .andExpect(jsonPath("$.errorsTruncated").value(true));
+    }
+
+    @Test
+    void unknownSellerIsABadRequest() throws Exception {
+        mvc.perform(post("/products/bulkImport").param("sellerId", "-1")
+                        .contentType("application/x-ndjson").content(row("a", "1")))
+           .andExpect(status().isBadRequest());
+        assertEquals(0, saved().size());
+    }
+
+    private String row(String name, String price) {
+        return "{\"productName\":\"" + tag + " " + name + "\",\"productCategory\":\"Books\",\"productPrice\":\"" + price + "\"}";
+    }
+
+    private ResultActions ndjson(String body) throws Exception {
+        return mvc.perform(post("/products/bulkImport").param("sellerId", String.valueOf(sellerId))
+                .contentType("application/x-ndjson").content(body));
+    }
+
+    private ResultActions csv(String body) throws Exception {
+        return mvc.perform(post("/products/bulkImport").param("sellerId", String.valueOf(sellerId))
+                .contentType("text/csv").content(body));
+    }
+
+    private List<Map<String, Object>> saved() {
+        return jdbc.queryForList("select * from product where product_name like ? order by product_id", tag + "%");
+    }
+}
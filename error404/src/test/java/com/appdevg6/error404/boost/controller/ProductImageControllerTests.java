@@ -0,0 +1,192 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.appdevg6.error404.boost.service.ProductImageStore;
+
+// Range requests against a stored 10-byte image ("0123456789"), uploads that are
+// not decodable raster data URLs being refused with 400 on every product write, the
+// headers that keep a stored file from running as a page, and edits
+// that do not touch the image keeping it.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductImageControllerTests {
+
+    private static final String IMAGE = "data:image/png;base64,MDEyMzQ1Njc4OQ==";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ProductImageStore imageStore;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String ref;
+    private String etag;
+
+    @BeforeEach
+    void store() {
+        ref = imageStore.store(IMAGE);
+        etag = "\"" + ProductImageStore.hashOf(ref) + "\"";
+    }
+
+    @Test
+    void singleRangesAreServedAsPartialContent() throws Exception {
+        range("bytes=2-5").andExpect(status().isPartialContent())
+           .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+           .andExpect(content().string("2345"));
+        // open-ended, suffix, and an end past the file clamped to the last byte
+        range("bytes=7-").andExpect(status().isPartialContent())
+           .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+           .andExpect(content().string("789"));
+        range("bytes=-3").andExpect(status().isPartialContent())
+           .andExpect(content().string("789"));
+        range("bytes=-50").andExpect(status().isPartialContent())
+           .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/10"));
+        range("bytes=8-100").andExpect(status().isPartialContent())
+           .andExpect(content().string("89"));
+    }
+
+    @Test
+    void unsatisfiableRangesGet416() throws Exception {
+        range("bytes=10-").andExpect(status().isRequestedRangeNotSatisfiable())
+           .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        range("bytes=5-2").andExpect(status().isRequestedRangeNotSatisfiable());
+        range("bytes=-0").andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void unsupportedRangesAreIgnored() throws Exception {
+        for (String header : new String[] {"bytes=0-1,4-5", "items=0-1", "bytes=abc", "bytes=3"}) {
+            range(header).andExpect(status().isOk())
+               .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+               .andExpect(content().string("0123456789"));
+        }
+        // If-Range for another version of the file: the whole (current) file
+        mvc.perform(get("/products/images/" + ref).header(HttpHeaders.RANGE, "bytes=0-1")
+                        .header(HttpHeaders.IF_RANGE, "\"other\""))
+           .andExpect(status().isOk())
+           .andExpect(content().string("0123456789"));
+        mvc.perform(get("/products/images/" + ref).header(HttpHeaders.RANGE, "bytes=0-1")
+                        .header(HttpHeaders.IF_RANGE, etag))
+           .andExpect(status().isPartialContent());
+        mvc.perform(get("/products/images/" + ref).header(HttpHeaders.IF_NONE_MATCH, etag))
+           .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void malformedImagesAreBadRequests() throws Exception {
+        String created = mvc.perform(post("/products/createProduct").contentType(MediaType.APPLICATION_JSON)
+                        .content(product(IMAGE)))
+           .andExpect(status().isOk())
+           .andReturn().getResponse().getContentAsString();
+        String id = created.replaceAll(".*\"productID\":(\\d+).*", "$1");
+
+        for (String image : new String[] {"data:image/png;base64,AAAAA", "data:image/png;base64,", "data:image/png,x;base64,AAAA"}) {
+            mvc.perform(post("/products/createProduct").contentType(MediaType.APPLICATION_JSON).content(product(image)))
+               .andExpect(status().isBadRequest());
+            mvc.perform(put("/products/updateProduct/" + id).contentType(MediaType.APPLICATION_JSON).content(product(image)))
+               .andExpect(status().isBadRequest());
+            mvc.perform(patch("/products/" + id).contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productImage\":\"" + image + "\"}"))
+               .andExpect(status().isBadRequest());
+        }
+        mvc.perform(get("/products/getProductById/" + id))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, "\"product-" + id + "-0-0\""));
+    }
+
+    @Test
+    void imagesCannotRunAsDocuments() throws Exception {
+        mvc.perform(get("/products/images/" + ref))
+           .andExpect(status().isOk())
+           .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+           .andExpect(header().string("Content-Security-Policy", "default-src 'none'; sandbox"))
+           .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+
+        String svg = "data:image/svg+xml;base64," + Base64.getEncoder().encodeToString(
+                "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>".getBytes(StandardCharsets.UTF_8));
+        mvc.perform(post("/products/createProduct").contentType(MediaType.APPLICATION_JSON).content(product(svg)))
+           .andExpect(status().isBadRequest());
+        mvc.perform(post("/products/createProduct").contentType(MediaType.APPLICATION_JSON)
+                        .content(product("data:text/html;base64,PGgxPmhpPC9oMT4=")))
+           .andExpect(status().isBadRequest());
+
+        // an SVG stored before they were refused is only offered as a download
+        String legacy = "ab".repeat(32) + ".svg";
+        Path file = Paths.get("target/test-product-images", legacy.substring(0, 2), legacy);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+        mvc.perform(get("/products/images/" + legacy))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment"))
+           .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+           .andExpect(header().string("Content-Security-Policy", "default-src 'none'; sandbox"));
+    }
+
+    @Test
+    void updatesKeepAnImageThatIsStillInline() throws Exception {
+        // a product the startup migration has not reached: its image is still in the row
+        jdbc.update("insert into product (product_name, product_price, product_status, product_image, version) "
+                + "values ('Poster', 5, 'APPROVED', ?, 0)", IMAGE);
+        int id = jdbc.queryForObject("select max(product_id) from product", Integer.class);
+
+        // an edit that sends neither an image nor a known reference leaves the image alone
+        for (String body : new String[] {product(""), product("").replace("}", ",\"productImageRef\":\"\"}"),
+                product("").replace(",\"productImage\":\"\"", "")}) {
+            mvc.perform(put("/products/updateProduct/" + id).contentType(MediaType.APPLICATION_JSON).content(body))
+               .andExpect(status().isOk());
+            assertEquals(IMAGE, jdbc.queryForObject("select product_image from product where product_id = ?", String.class, id));
+        }
+
+        // the edit form sends the inline image back, which moves it to the store
+        mvc.perform(put("/products/updateProduct/" + id).contentType(MediaType.APPLICATION_JSON).content(product(IMAGE)))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.productImage").value(nullValue()))
+           .andExpect(jsonPath("$.productImageRef").value(ref));
+
+        // only an explicit removal clears it
+        mvc.perform(put("/products/updateProduct/" + id).param("removeImage", "true")
+                        .contentType(MediaType.APPLICATION_JSON).content(product("")))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.productImage").value(nullValue()))
+           .andExpect(jsonPath("$.productImageRef").value(nullValue()));
+    }
+
+    private ResultActions range(String header) throws Exception {
+        return mvc.perform(get("/products/images/" + ref).header(HttpHeaders.RANGE, header));
+    }
+
+    private static String product(String image) {
+        return "{\"productName\":\"Poster\",\"productCategory\":\"Art\",\"productPrice\":5,"
+                + "\"productStatus\":\"APPROVED\",\"productImage\":\"" + image + "\"}";
+    }
+}
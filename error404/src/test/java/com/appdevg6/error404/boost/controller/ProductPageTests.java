@@ -0,0 +1,158 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.service.productService;
+
+// Keyset paging over /products/getProductPage: the cursor walks a category in
+// productID order without gaps or repeats, other categories are skipped, and the
+// page size falls back to the default or is capped at the maximum. Each test pages
+// through a category of its own.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductPageTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String category;
+    private String other;
+
+    @BeforeEach
+    void tag() {
+        category = "cat" + System.nanoTime();
+        other = category + "-other";
+    }
+
+    @Test
+    void cursorWalksTheCategoryInIdOrder() throws Exception {
+        int p1 = create(category);
+        create(other);
+        int p2 = create(category);
+        int p3 = create(category);
+        create(other);
+        int p4 = create(category);
+        int p5 = create(category);
+
+        page(null, 2, category).andExpect(status().isOk())
+           .andExpect(jsonPath("$.items.length()").value(2))
+           .andExpect(jsonPath("$.items[0].productID").value(p1))
+           .andExpect(jsonPath("$.items[1].productID").value(p2))
+           .andExpect(jsonPath("$.nextCursor").value(String.valueOf(p2)));
+        page(p2, 2, category)
+           .andExpect(jsonPath("$.items[0].productID").value(p3))
+           .andExpect(jsonPath("$.items[1].productID").value(p4))
+           .andExpect(jsonPath("$.nextCursor").value(String.valueOf(p4)));
+        page(p4, 2, category)
+           .andExpect(jsonPath("$.items.length()").value(1))
+           .andExpect(jsonPath("$.items[0].productID").value(p5))
+           .andExpect(jsonPath("$.items[0].productCategory").value(category))
+           .andExpect(jsonPath("$.items[0].productImage").doesNotExist())
+           .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+        // a cursor that is not itself in the category still works: it is only a productID
+        page(p1 + 1, 10, category)
+           .andExpect(jsonPath("$.items.length()").value(4))
+           .andExpect(jsonPath("$.items[0].productID").value(p2));
+        page(p5, 2, category)
+           .andExpect(jsonPath("$.items").isEmpty())
+           .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() throws Exception {
+        create(category);
+        int p2 = create(category);
+        create(category);
+        int p4 = create(category);
+
+        page(p2, 2, category)
+           .andExpect(jsonPath("$.items.length()").value(2))
+           .andExpect(jsonPath("$.items[1].productID").value(p4))
+           .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void withoutACategoryEveryProductIsListed() throws Exception {
+        int p1 = create(category);
+        int p2 = create(other);
+        int p3 = create(category);
+
+        // blank is the same as no category
+        for (String none : new String[] {null, " "}) {
+            page(p1 - 1, 3, none)
+               .andExpect(jsonPath("$.items[0].productID").value(p1))
+               .andExpect(jsonPath("$.items[1].productID").value(p2))
+               .andExpect(jsonPath("$.items[2].productID").value(p3));
+        }
+    }
+
+    @Test
+    void pageSizeIsDefaultedAndCapped() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < productService.MAX_PAGE_SIZE + 5; i++) {
+            rows.add(new Object[] {"Bulk " + i, category});
+        }
+        jdbc.batchUpdate("insert into product (product_name, product_category, product_price, product_status, version) "
+                + "values (?, ?, 1, 'APPROVED', 0)", rows);
+        int last = jdbc.queryForObject("select product_id from product where product_category = ? "
+                + "order by product_id limit 1 offset ?", Integer.class, category, productService.MAX_PAGE_SIZE - 1);
+
+        for (Integer size : new Integer[] {null, 0, -5}) {
+            page(null, size, category)
+               .andExpect(jsonPath("$.items.length()").value(productService.DEFAULT_PAGE_SIZE));
+        }
+        page(null, 1000, category)
+           .andExpect(jsonPath("$.items.length()").value(productService.MAX_PAGE_SIZE))
+           .andExpect(jsonPath("$.nextCursor").value(String.valueOf(last)));
+        page(last, 1000, category)
+           .andExpect(jsonPath("$.items.length()").value(5))
+           .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    private ResultActions page(Integer after, Integer size, String category) throws Exception {
+        MockHttpServletRequestBuilder request = get("/products/getProductPage");
+        if (after != null) {
+            request.param("after", after.toString());
+        }
+        if (size != null) {
+            request.param("size", size.toString());
+        }
+        if (category != null) {
+            request.param("category", category);
+        }
+        return mvc.perform(request);
+    }
+
+    private int create(String category) {
+        productEntity product = new productEntity();
+        product.setProductName("Item");
+        product.setProductCategory(category);
+        product.setProductPrice(3);
+        product.setProductStatus("APPROVED");
+        product.setProductImage("data:image/png;base64,iVBORw0KGgo=");
+        return pserv.createProduct(product).getProductID();
+    }
+}
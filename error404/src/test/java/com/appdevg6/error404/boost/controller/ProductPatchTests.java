@@ -0,0 +1,148 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.dto.ProductPatch;
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.service.CatalogVersion;
+import com.appdevg6.error404.boost.service.productService;
+import com.appdevg6.error404.boost.service.userService;
+
+// A patch must be what GET /products/getProductById serves, under the new ETag, as soon
+// as it has committed - also when another request read (and cached) the product while
+// the patch was still in flight. The same goes for a change to the embedded seller.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductPatchTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private productRepository products;
+
+    @Autowired
+    private productService pserv;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private userService userv;
+
+    private int id;
+
+    @BeforeEach
+    void seed() {
+        productEntity product = new productEntity();
+        product.setProductName("Lamp");
+        product.setProductCategory("Home");
+        product.setProductPrice(20);
+        product.setProductStatus("APPROVED");
+        id = pserv.createProduct(product).getProductID();
+    }
+
+    @Test
+    void patchIsServedWithItsETagRightAfterCommit() throws Exception {
+        mvc.perform(get("/products/getProductById/" + id))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, etag(0)));
+
+        mvc.perform(patch("/products/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, etag(0))
+                        .content("{\"productName\":\"Desk lamp\"}"))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, etag(1)));
+
+        // the old tag no longer matches, and the body is the patched product
+        mvc.perform(get("/products/getProductById/" + id).header(HttpHeaders.IF_NONE_MATCH, etag(0)))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, etag(1)))
+           .andExpect(jsonPath("$.productName").value("Desk lamp"));
+    }
+
+    @Test
+    void readDuringThePatchDoesNotLeaveTheOldRowCached() throws Exception {
+        ProductPatch change = new ProductPatch();
+        change.setProductName("Floor lamp");
+        tx.executeWithoutResult(status -> {
+            pserv.patchProduct(id, change, null);
+            // another request, before the commit: it sees (and caches) the committed old row
+            String seen = CompletableFuture.supplyAsync(() -> pserv.getProductById(id).get().getProductName()).join();
+            assertEquals("Lamp", seen);
+        });
+
+        mvc.perform(get("/products/getProductById/" + id))
+           .andExpect(status().isOk())
+           .andExpect(header().string(HttpHeaders.ETAG, etag(1)))
+           .andExpect(jsonPath("$.productName").value("Floor lamp"));
+        assertEquals("Floor lamp", products.findById(id).get().getProductName());
+    }
+
+    @Test
+    void catalogTagMovesOnlyOnceThePatchHasCommitted() {
+        String before = catalogVersion.etag();
+        ProductPatch change = new ProductPatch();
+        change.setProductPrice(25.0);
+        tx.executeWithoutResult(status -> {
+            pserv.patchProduct(id, change, null);
+            // a list request now still reads the old rows, so it must still get the old tag
+            assertEquals(before, catalogVersion.etag());
+        });
+        assertNotEquals(before, catalogVersion.etag());
+    }
+
+    @Test
+    void sellerUpdateChangesTheProductAndItsETag() throws Exception {
+        userEntity seller = new userEntity();
+        seller.setUsername("lampmaker");
+        seller.setEmail("lampmaker-" + System.nanoTime() + "@boost.test");
+        seller.setRole("SELLER");
+        seller = userv.createUser(seller);
+        productEntity product = new productEntity();
+        product.setProductName("Shade");
+        product.setProductStatus("APPROVED");
+        product.setUser(seller);
+        int shade = pserv.createProduct(product).getProductID();
+
+        String before = mvc.perform(get("/products/getProductById/" + shade))
+           .andExpect(jsonPath("$.user.username").value("lampmaker"))
+           .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(put("/api/users/updateUser/" + seller.getUserID()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"lightsmith\"}"))
+           .andExpect(status().isOk());
+
+        mvc.perform(get("/products/getProductById/" + shade).header(HttpHeaders.IF_NONE_MATCH, before))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.user.username").value("lightsmith"));
+    }
+
+    private String etag(long version) {
+        return "\"product-" + id + "-" + version + "-0\"";
+    }
+}
@@ -0,0 +1,139 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.appdevg6.error404.boost.entity.productEntity;
+import com.appdevg6.error404.boost.entity.recommendationEntity;
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.repository.RecommendationRepository;
+import com.appdevg6.error404.boost.repository.productRepository;
+import com.appdevg6.error404.boost.repository.userRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Every recommendation read endpoint must cost one statement regardless of how many
+// users and products the rows point at, and must not ship product images.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class RecommendationQueryCountTests {
+
+    private static final int USERS = 5;
+    private static final int PRODUCTS = 8;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private userRepository users;
+
+    @Autowired
+    private productRepository products;
+
+    @Autowired
+    private RecommendationRepository recommendations;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private userEntity firstUser;
+    private productEntity firstProduct;
+    private int firstRecommendation;
+
+    @BeforeEach
+    void seed() {
+        recommendations.deleteAllInBatch();
+        userEntity[] u = new userEntity[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userEntity user = new userEntity();
+            user.setUsername("rec" + i);
+            user.setEmail("rec" + i + "-" + System.nanoTime() + "@boost.test");
+            user.setFirstname("First" + i);
+            user.setRole("SELLER");
+            u[i] = users.save(user);
+        }
+        for (int p = 0; p < PRODUCTS; p++) {
+            productEntity product = new productEntity();
+            product.setProductName("Item " + p);
+            product.setProductCategory("Books");
+            product.setProductPrice(10 + p);
+            product.setProductStatus("APPROVED");
+            product.setProductImage("data:image/png;base64,AAAA");
+            product.setUser(u[p % USERS]);
+            product = products.save(product);
+            for (int i = 0; i < USERS; i++) {
+                recommendationEntity r = new recommendationEntity();
+                r.setUser(u[i]);
+                r.setProduct(product);
+                r.setRating(1 + (i + p) % 5);
+                r.setMessage("review " + i);
+                r.setDateGenerated(LocalDate.now());
+                r = recommendations.save(r);
+                if (firstRecommendation == 0) {
+                    firstRecommendation = r.getRecommendationID();
+                }
+            }
+            if (p == 0) {
+                firstProduct = product;
+            }
+        }
+        firstUser = u[0];
+    }
+
+    @Test
+    void listAllIsOneStatement() throws Exception {
+        String body = assertSingleStatement("/recommendations");
+        assertFalse(body.contains("base64"), "product images must not be serialized");
+    }
+
+    @Test
+    void byUserIsOneStatement() throws Exception {
+        assertSingleStatement("/recommendations/user/" + firstUser.getUserID());
+    }
+
+    @Test
+    void byProductIsOneStatement() throws Exception {
+        assertSingleStatement("/recommendations/product/" + firstProduct.getProductID());
+    }
+
+    @Test
+    void byIdKeepsNestedShape() throws Exception {
+        Statistics stats = statistics();
+        stats.clear();
+        mvc.perform(get("/recommendations/" + firstRecommendation))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.user.userID").value(firstUser.getUserID()))
+           .andExpect(jsonPath("$.user.firstname").value("First0"))
+           .andExpect(jsonPath("$.product.productID").value(firstProduct.getProductID()))
+           .andExpect(jsonPath("$.product.productImage").doesNotExist());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    private String assertSingleStatement(String url) throws Exception {
+        Statistics stats = statistics();
+        stats.clear();
+        String body = mvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(1, stats.getPrepareStatementCount(), url + " should run exactly one statement");
+        assertEquals(0, stats.getEntityLoadCount(), url + " should not hydrate entities");
+        return body;
+    }
+
+    private Statistics statistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+}
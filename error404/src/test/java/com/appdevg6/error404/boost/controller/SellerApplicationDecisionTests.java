@@ -0,0 +1,111 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.service.SellerApplicationCounts;
+import com.appdevg6.error404.boost.service.sellerapplicationService;
+import com.appdevg6.error404.boost.service.userService;
+
+// Approving or rejecting moves the in-memory counts and refreshes the cached applicant
+// only once the decision has committed.
+@SpringBootTest
+@AutoConfigureMockMvc
+class SellerApplicationDecisionTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private userService userv;
+
+    @Autowired
+    private sellerapplicationService sserv;
+
+    @Autowired
+    private SellerApplicationCounts counts;
+
+    private int userId;
+    private int applicationId;
+
+    @BeforeEach
+    void seed() {
+        userEntity user = new userEntity();
+        user.setUsername("applicant");
+        user.setEmail("applicant-" + System.nanoTime() + "@boost.test");
+        user.setRole("BUYER");
+        userId = userv.createUser(user).getUserID();
+        jdbc.update("insert into seller_application (application_status, application_date, user_id) values (?, current_date, ?)",
+                sellerapplicationService.PENDING, userId);
+        applicationId = jdbc.queryForObject("select application_ID from seller_application where user_id = ?", Integer.class, userId);
+        counts.resync();
+    }
+
+    @Test
+    void approvalIsCountedAndServedOnceCommitted() throws Exception {
+        long pending = count(sellerapplicationService.PENDING);
+        long approved = count(sellerapplicationService.APPROVED);
+        mvc.perform(get("/api/users/getUserById/" + userId)).andExpect(jsonPath("$.role").value("BUYER"));
+
+        mvc.perform(put("/seller-applications/approve/" + applicationId)).andExpect(status().isOk());
+
+        assertEquals(pending - 1, count(sellerapplicationService.PENDING));
+        assertEquals(approved + 1, count(sellerapplicationService.APPROVED));
+        mvc.perform(get("/api/users/getUserById/" + userId)).andExpect(jsonPath("$.role").value("SELLER"));
+    }
+
+    @Test
+    void bulkApprovalWaitsForTheCommit() throws Exception {
+        long pending = count(sellerapplicationService.PENDING);
+        tx.executeWithoutResult(status -> {
+            sserv.approveApplications(List.of(applicationId));
+            assertEquals(pending, count(sellerapplicationService.PENDING));
+            // another request reads (and caches) the applicant as committed so far
+            String role = CompletableFuture.supplyAsync(() -> userv.getUserById(userId).get().getRole()).join();
+            assertEquals("BUYER", role);
+        });
+
+        assertEquals(pending - 1, count(sellerapplicationService.PENDING));
+        mvc.perform(get("/api/users/getUserById/" + userId)).andExpect(jsonPath("$.role").value("SELLER"));
+    }
+
+    @Test
+    void rolledBackRejectionIsNotCounted() {
+        long pending = count(sellerapplicationService.PENDING);
+        long rejected = count(sellerapplicationService.REJECTED);
+        tx.executeWithoutResult(status -> {
+            sserv.rejectApplication(applicationId);
+            sserv.rejectApplications(List.of(applicationId));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(pending, count(sellerapplicationService.PENDING));
+        assertEquals(rejected, count(sellerapplicationService.REJECTED));
+    }
+
+    private long count(String status) {
+        return counts.snapshot().getOrDefault(status, 0L);
+    }
+}
@@ -0,0 +1,88 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appdevg6.error404.boost.entity.userEntity;
+import com.appdevg6.error404.boost.service.SellerApplicationCounts;
+import com.appdevg6.error404.boost.service.userService;
+
+// Deleting a user touches the user cache and the application counts only once the
+// delete has committed: a rolled back delete leaves both as they were, and a read
+// racing the delete cannot leave the deleted user cached.
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserDeleteTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate tx;
+
+    @Autowired
+    private userService userv;
+
+    @Autowired
+    private SellerApplicationCounts counts;
+
+    private int id;
+
+    @BeforeEach
+    void seed() {
+        userEntity user = new userEntity();
+        user.setUsername("leaving");
+        user.setEmail("leaving-" + System.nanoTime() + "@boost.test");
+        user.setRole("BUYER");
+        id = userv.createUser(user).getUserID();
+        jdbc.update("insert into seller_application (application_status, application_date, user_id) values ('PENDING', current_date, ?)", id);
+        counts.resync();
+    }
+
+    @Test
+    void committedDeleteUpdatesCacheAndCountsAfterCommit() throws Exception {
+        long pending = pending();
+        tx.executeWithoutResult(status -> {
+            assertEquals("User deleted successfully", userv.deleteUser(id, null));
+            // not committed yet: the counts still include the application
+            assertEquals(pending, pending());
+            // another request reads (and caches) the still-committed user
+            assertTrue(CompletableFuture.supplyAsync(() -> userv.getUserById(id).isPresent()).join());
+        });
+
+        assertEquals(pending - 1, pending());
+        mvc.perform(get("/api/users/getUserById/" + id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rolledBackDeleteLeavesCacheAndCountsAlone() throws Exception {
+        long pending = pending();
+        tx.executeWithoutResult(status -> {
+            userv.deleteUser(id, null);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(pending, pending());
+        mvc.perform(get("/api/users/getUserById/" + id)).andExpect(status().isOk());
+    }
+
+    private long pending() {
+        return counts.snapshot().getOrDefault("PENDING", 0L);
+    }
+}
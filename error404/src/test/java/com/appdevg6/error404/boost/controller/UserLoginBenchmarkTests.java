@@ -0,0 +1,87 @@
+package com.appdevg6.error404.boost.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Seeds the users table at increasing sizes and checks that a login always costs
+// the same number of statements and entity loads, i.e. it never scans the table.
+// The same account logs in repeatedly, so the login attempt budgets are off.
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "boost.login.rate.enabled=false"})
+@AutoConfigureMockMvc
+class UserLoginBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLoginBenchmarkTests.class);
+
+    private static final int[] TABLE_SIZES = {1_000, 20_000};
+    private static final int LOGINS_PER_SIZE = 20;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void loginCostIsIndependentOfUserCount() throws Exception {
+        // low bcrypt strength keeps the run short; matches() works with any strength
+        String hash = new BCryptPasswordEncoder(4).encode("secret");
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        int seeded = 0;
+        long[] statementsPerLogin = new long[TABLE_SIZES.length];
+        for (int i = 0; i < TABLE_SIZES.length; i++) {
+            seeded = seedUsers(seeded, TABLE_SIZES[i], hash);
+            String body = "{\"email\":\"user" + (TABLE_SIZES[i] - 1) + "@boost.test\",\"password\":\"secret\"}";
+
+            stats.clear();
+            long start = System.nanoTime();
+            for (int n = 0; n < LOGINS_PER_SIZE; n++) {
+                mvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                   .andExpect(status().isOk());
+            }
+            long avgMicros = (System.nanoTime() - start) / 1_000 / LOGINS_PER_SIZE;
+
+            statementsPerLogin[i] = stats.getPrepareStatementCount() / LOGINS_PER_SIZE;
+            log.info("login_benchmark users={} avg_us={} statements_per_login={} entities_per_login={}",
+                    TABLE_SIZES[i], avgMicros, statementsPerLogin[i],
+                    stats.getEntityLoadCount() / LOGINS_PER_SIZE);
+
+            assertTrue(stats.getEntityLoadCount() <= 2L * LOGINS_PER_SIZE,
+                    "login should hydrate at most the matching user");
+        }
+        assertEquals(statementsPerLogin[0], statementsPerLogin[TABLE_SIZES.length - 1]);
+    }
+
+    private int seedUsers(int from, int to, String hash) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            rows.add(new Object[] {"user" + i, "user" + i + "@boost.test", hash, "BUYER"});
+        }
+        jdbc.batchUpdate("insert into users (username, email, password, role) values (?, ?, ?, ?)", rows);
+        return to;
+    }
+}
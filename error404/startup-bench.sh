@@ -0,0 +1,68 @@
+#!/usr/bin/env sh
+# Cold-start benchmark: launches the app RUNS times (default 5) per mode and measures the
+# wall time from JVM launch to the first 200 from /products/getAllProducts.
+#   fat-jar       the plain Spring Boot jar, as deployed today
+#   extracted     the extracted jar (target/fast-start), no AOT/lazy/CDS
+#   aot-lazy      + Spring AOT and the fast-start profile (lazy initialization)
+#   aot-lazy-cds  + the AppCDS archive from the training run
+# Runs from target/fast-start, building it with mvn -Pfast-start package when it is missing. Extra arguments
+# go to the application (and to that training run), e.g. --spring.datasource.url=jdbc:mysql://...
+# PORT (default 8080) and APP_CLASSPATH (absolute paths of extra jars, e.g. another JDBC driver)
+# are optional.
+set -e
+cd "$(dirname "$0")"
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+MAIN=com.appdevg6.error404.boost.Error404Application
+JAR=error404-0.0.1-SNAPSHOT.jar
+EXTRA=${APP_CLASSPATH:+:$APP_CLASSPATH}
+OUT=../startup-bench
+
+if [ ! -f target/fast-start/application.jsa ]; then
+    sh ./mvnw -B -q -Pfast-start package -DskipTests -Dfast-start.training.args="$*"
+fi
+# same working directory and relative classpath as the training run, or the archive is not used
+cd target/fast-start
+mkdir -p "$OUT"
+
+# one start: prints milliseconds until the first successful response
+measure() {
+    log=$1; shift
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/products/getAllProducts")" = 200 ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited, see $log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+run() {
+    name=$1; shift
+    : > "$OUT/$name.txt"
+    i=1
+    while [ "$i" -le "$RUNS" ]; do
+        measure "$OUT/$name.log" "$@" >> "$OUT/$name.txt"
+        i=$((i + 1))
+    done
+    echo "== $name: $(tr '\n' ' ' < "$OUT/$name.txt")ms"
+}
+
+run fat-jar      java -cp "../$JAR$EXTRA" org.springframework.boot.loader.launch.JarLauncher "$@"
+run extracted    java -cp "$JAR$EXTRA" $MAIN "$@"
+run aot-lazy     java -Dspring.aot.enabled=true -cp "$JAR$EXTRA" $MAIN --spring.profiles.active=fast-start "$@"
+run aot-lazy-cds java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -cp "$JAR$EXTRA" $MAIN \
+                     --spring.profiles.active=fast-start "$@"
+
+echo
+echo "mode            min    median  (ms to first getAllProducts 200, $RUNS runs; logs in target/startup-bench)"
+for f in fat-jar extracted aot-lazy aot-lazy-cds; do
+    sort -n "$OUT/$f.txt" | awk -v name="$f" '{ v[NR] = $1 } END { printf "%-14s %6d %8d\n", name, v[1], v[int((NR + 1) / 2)] }'
+done